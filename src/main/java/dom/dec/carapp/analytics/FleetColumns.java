@@ -0,0 +1,298 @@
+package dom.dec.carapp.analytics;
+
+import dom.dec.carapp.domain.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only columnar copy of the cars table in a memory-mapped file, stored column by column (year, color ordinal,
+ * brand id, model id).
+ */
+public class FleetColumns {
+    private static final int YEAR_BYTES = Integer.BYTES;
+    private static final int COLOR_BYTES = Byte.BYTES;
+    private static final int BRAND_BYTES = Integer.BYTES;
+    private static final int MODEL_BYTES = Integer.BYTES;
+    private static final int ROW_BYTES = YEAR_BYTES + COLOR_BYTES + BRAND_BYTES + MODEL_BYTES;
+    private static final int MIN_ROWS_PER_PART = 64 * 1024;
+
+    private static final FleetColumns EMPTY = new FleetColumns(null, null, 0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE,
+            List.of(), List.of());
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int rows;
+    private final int minYear;
+    private final int maxYear;
+    private final List<String> brands;
+    private final List<String> models;
+    // one reference for the owner plus one per running scan; the file is deleted with the last one
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private FleetColumns(Path file, MappedByteBuffer buffer, int capacity, int rows, int minYear, int maxYear,
+                         List<String> brands, List<String> models) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.rows = rows;
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        this.brands = brands;
+        this.models = models;
+    }
+
+    public static FleetColumns empty() {
+        return EMPTY;
+    }
+
+    public static Writer writer(Path file, int capacity) {
+        return new Writer(file, capacity);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long[] yearHistogram(int from, int to) {
+        int min = Math.max(Math.min(from, to), minYear);
+        int max = Math.min(Math.max(from, to), maxYear);
+        if (min > max) {
+            return new long[0];
+        }
+
+        int width = max - min + 1;
+        return scan(width, (counts, start, end) -> {
+            for (int i = start; i < end; i++) {
+                int year = buffer.getInt(yearOffset(i));
+                if (year >= min && year <= max) {
+                    counts[year - min]++;
+                }
+            }
+        });
+    }
+
+    public long[] colorDistribution(int from, int to) {
+        int min = Math.min(from, to);
+        int max = Math.max(from, to);
+
+        return scan(Color.values().length, (counts, start, end) -> {
+            for (int i = start; i < end; i++) {
+                int year = buffer.getInt(yearOffset(i));
+                if (year >= min && year <= max) {
+                    counts[buffer.get(colorOffset(i))]++;
+                }
+            }
+        });
+    }
+
+    public long[] brandDistribution(int from, int to) {
+        int min = Math.min(from, to);
+        int max = Math.max(from, to);
+
+        return scan(brands.size(), (counts, start, end) -> {
+            for (int i = start; i < end; i++) {
+                int year = buffer.getInt(yearOffset(i));
+                if (year >= min && year <= max) {
+                    counts[buffer.getInt(brandOffset(i))]++;
+                }
+            }
+        });
+    }
+
+    public long[] modelDistribution(int from, int to) {
+        int min = Math.min(from, to);
+        int max = Math.max(from, to);
+
+        return scan(models.size(), (counts, start, end) -> {
+            for (int i = start; i < end; i++) {
+                int year = buffer.getInt(yearOffset(i));
+                if (year >= min && year <= max) {
+                    counts[buffer.getInt(modelOffset(i))]++;
+                }
+            }
+        });
+    }
+
+    public int getMinYear() {
+        return minYear;
+    }
+
+    public String brand(int id) {
+        return brands.get(id);
+    }
+
+    public String model(int id) {
+        return models.get(id);
+    }
+
+    public boolean retain() {
+        if (file == null) {
+            return true;
+        }
+        int current;
+        do {
+            current = references.get();
+            if (current == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        if (file != null && references.decrementAndGet() == 0) {
+            delete();
+        }
+    }
+
+    public void delete() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private long[] scan(int buckets, RangeScan rangeScan) {
+        if (rows == 0 || buckets == 0) {
+            return new long[buckets];
+        }
+
+        int parts = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rows / MIN_ROWS_PER_PART));
+        int partSize = (rows + parts - 1) / parts;
+
+        return IntStream.range(0, parts)
+                .parallel()
+                .mapToObj(part -> {
+                    long[] counts = new long[buckets];
+                    rangeScan.scan(counts, part * partSize, Math.min(rows, (part + 1) * partSize));
+                    return counts;
+                })
+                .reduce(new long[buckets], FleetColumns::merge);
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        long[] merged = Arrays.copyOf(left, left.length);
+        for (int i = 0; i < right.length; i++) {
+            merged[i] += right[i];
+        }
+        return merged;
+    }
+
+    private int yearOffset(int row) {
+        return yearOffset(capacity, row);
+    }
+
+    private int colorOffset(int row) {
+        return colorOffset(capacity, row);
+    }
+
+    private int brandOffset(int row) {
+        return brandOffset(capacity, row);
+    }
+
+    private int modelOffset(int row) {
+        return modelOffset(capacity, row);
+    }
+
+    private static int yearOffset(int capacity, int row) {
+        return row * YEAR_BYTES;
+    }
+
+    private static int colorOffset(int capacity, int row) {
+        return capacity * YEAR_BYTES + row * COLOR_BYTES;
+    }
+
+    private static int brandOffset(int capacity, int row) {
+        return capacity * (YEAR_BYTES + COLOR_BYTES) + row * BRAND_BYTES;
+    }
+
+    private static int modelOffset(int capacity, int row) {
+        return capacity * (YEAR_BYTES + COLOR_BYTES + BRAND_BYTES) + row * MODEL_BYTES;
+    }
+
+    @FunctionalInterface
+    private interface RangeScan {
+        void scan(long[] counts, int start, int end);
+    }
+
+    public static class Writer {
+        private final Path file;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+        private final Map<String, Integer> brandDictionary = new HashMap<>();
+        private final Map<String, Integer> modelDictionary = new HashMap<>();
+        private final List<String> brands = new ArrayList<>();
+        private final List<String> models = new ArrayList<>();
+        private int rows;
+        private int minYear = Integer.MAX_VALUE;
+        private int maxYear = Integer.MIN_VALUE;
+
+        private Writer(Path file, int capacity) {
+            if ((long) capacity * ROW_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Fleet too large for a single mapped snapshot: " + capacity);
+            }
+            this.file = file;
+            this.capacity = capacity;
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the mapping stays valid after the channel is closed
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * ROW_BYTES);
+                this.buffer.order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public boolean append(int year, Color color, String brand, String model) {
+            if (rows == capacity) {
+                return false;
+            }
+
+            buffer.putInt(yearOffset(capacity, rows), year);
+            buffer.put(colorOffset(capacity, rows), (byte) color.ordinal());
+            buffer.putInt(brandOffset(capacity, rows), encode(brand, brandDictionary, brands));
+            buffer.putInt(modelOffset(capacity, rows), encode(model, modelDictionary, models));
+            minYear = Math.min(minYear, year);
+            maxYear = Math.max(maxYear, year);
+            rows++;
+            return true;
+        }
+
+        public FleetColumns build() {
+            return new FleetColumns(file, buffer, capacity, rows, minYear, maxYear, List.copyOf(brands), List.copyOf(models));
+        }
+
+        private int encode(String value, Map<String, Integer> dictionary, List<String> values) {
+            Integer id = dictionary.get(value);
+            if (id == null) {
+                id = values.size();
+                dictionary.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package dom.dec.carapp.api;
 
 import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.BulkResultDto;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.dto.YearRangeDto;
+import dom.dec.carapp.monitoring.SqlBudget;
+import dom.dec.carapp.service.CarBatchQueryService;
 import dom.dec.carapp.service.CarService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/cars")
@@ -19,13 +32,18 @@ import java.util.List;
 @Validated
 public class CarApi {
     private CarService carService;
+    private CarQueryCoalescer queryCoalescer;
+    private CarBatchQueryService batchQueryService;
 
     @Autowired
-    public CarApi(CarService carService) {
+    public CarApi(CarService carService, CarQueryCoalescer queryCoalescer, CarBatchQueryService batchQueryService) {
         this.carService = carService;
+        this.queryCoalescer = queryCoalescer;
+        this.batchQueryService = batchQueryService;
     }
 
     @GetMapping
+    @SqlBudget(statements = 2)
     public ResponseEntity<List<Car>> getAll() {
         List<Car> foundCars = carService.findAll();
 
@@ -36,19 +54,72 @@ public class CarApi {
         return ResponseEntity.ok(foundCars);
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    @SqlBudget(statements = 2)
+    public ResponseEntity<CarProjectionDto> getAllFields(@RequestParam(name = "fields") String fields) {
+        CarProjectionDto foundCars = carService.findAll(parseFields(fields));
+
+        if (foundCars.getRows().size() == 0) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(foundCars);
+    }
+
+    @GetMapping("/{id}")
+    @SqlBudget(statements = 2, rows = 1)
+    public ResponseEntity<Car> getById(@PathVariable("id") long id) {
+        return ResponseEntity.ok(carService.findById(id));
+    }
+
+    @GetMapping(params = "ids")
+    @SqlBudget(statements = 10)
+    public ResponseEntity<CarBatchDto> getAllByIds(@RequestParam(name = "ids") @Size(min = 1, max = 10000, message = "Ids param must contain between 1 and 10000 ids") List<Long> ids) {
+        return ResponseEntity.ok(carService.findAllByIds(ids));
+    }
+
     @GetMapping("/filter")
-    public ResponseEntity<List<Car>> getAllByYear(@RequestParam(name = "from") @Min(value = 1900, message = "From param cannot be less than 1900") long from,
-                                                  @RequestParam(name = "to") @Min(value = 1900, message = "To param cannot be less than 1900") long to) {
-        List<Car> foundCars = carService.findAllByYear(from, to);
+    @SqlBudget(statements = 2)
+    public ResponseEntity<byte[]> getAllByYear(@RequestParam(name = "from") @Min(value = 1900, message = "From param cannot be less than 1900") long from,
+                                               @RequestParam(name = "to") @Min(value = 1900, message = "To param cannot be less than 1900") long to) {
+        byte[] foundCars = queryCoalescer.findAllByYear(from, to);
 
-        if (foundCars.size() == 0) {
+        if (foundCars.length == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(foundCars);
+    }
+
+    @GetMapping(value = "/filter", params = "fields")
+    @SqlBudget(statements = 2)
+    public ResponseEntity<CarProjectionDto> getAllFieldsByYear(@RequestParam(name = "from") @Min(value = 1900, message = "From param cannot be less than 1900") long from,
+                                                               @RequestParam(name = "to") @Min(value = 1900, message = "To param cannot be less than 1900") long to,
+                                                               @RequestParam(name = "fields") String fields) {
+        CarProjectionDto foundCars = carService.findAllByYear(from, to, parseFields(fields));
+
+        if (foundCars.getRows().size() == 0) {
             return ResponseEntity.notFound().build();
         }
 
         return ResponseEntity.ok(foundCars);
     }
 
+    @PostMapping("/filter/batch")
+    @SqlBudget(statements = 200)
+    public ResponseEntity<Map<String, List<Car>>> getAllByYearRanges(@RequestBody @Size(min = 1, max = 100, message = "Batch must contain between 1 and 100 ranges") List<@Valid YearRangeDto> ranges) {
+        List<List<Car>> foundCars = batchQueryService.findAllByYearRanges(ranges);
+
+        Map<String, List<Car>> byRange = new LinkedHashMap<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            byRange.put(ranges.get(i).toString(), foundCars.get(i));
+        }
+
+        return ResponseEntity.ok(byRange);
+    }
+
     @PostMapping
+    @SqlBudget(statements = 1)
     public ResponseEntity<Car> addCar(@Valid @RequestBody CarDto carDto) {
         Car car = carService.saveCar(carDto);
         URI uri = URI.create("/cars/" + car.getCarId());
@@ -56,14 +127,40 @@ public class CarApi {
     }
 
     @PutMapping("/{id}")
+    @SqlBudget(statements = 4)
     public ResponseEntity<Car> updateCar(@Valid @RequestBody CarDto carDto, @PathVariable("id") long id) {
         Car car = carService.updateCar(carDto, id);
         return ResponseEntity.ok(car);
     }
 
     @DeleteMapping("/{id}")
+    @SqlBudget(statements = 3)
     public ResponseEntity<Car> deleteCar(@PathVariable("id") long id) {
         carService.deleteCar(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PatchMapping
+    @SqlBudget(statements = 4)
+    public ResponseEntity<BulkResultDto> updateAllMatching(@Valid CarFilterDto filter, @Valid @RequestBody CarPatchDto patch,
+                                                           @RequestParam(name = "dryRun", defaultValue = "false") boolean dryRun) {
+        long updated = carService.updateAllMatching(filter, patch, dryRun);
+        return ResponseEntity.ok(new BulkResultDto(updated, dryRun));
+    }
+
+    @DeleteMapping
+    @SqlBudget(statements = 4)
+    public ResponseEntity<BulkResultDto> deleteAllMatching(@Valid CarFilterDto filter,
+                                                           @RequestParam(name = "dryRun", defaultValue = "false") boolean dryRun) {
+        long deleted = carService.deleteAllMatching(filter, dryRun);
+        return ResponseEntity.ok(new BulkResultDto(deleted, dryRun));
+    }
+
+    private static List<String> parseFields(String fields) {
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+    }
 }
@@ -0,0 +1,28 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.dto.ImportReportDto;
+import dom.dec.carapp.service.CarImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@Profile("!embedded")
+@RequestMapping("/cars/import")
+@CrossOrigin
+public class CarImportApi {
+    private CarImportService importService;
+
+    @Autowired
+    public CarImportApi(CarImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ImportReportDto> importCars(InputStream csv) {
+        return ResponseEntity.ok(importService.importCsv(csv));
+    }
+}
@@ -0,0 +1,158 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.service.CarChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bodies are checked against the entity version, so one is only reused for exactly the row it was written from.
+ */
+@Component
+public class CarJsonCache {
+    // map node, entry record and array header
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private static final byte[] START_ARRAY = {'['};
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] END_ARRAY = {']'};
+
+    private ObjectWriter writer;
+    private long maxBytes;
+    private long usedBytes;
+    private Map<Long, Entry> bodies = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public CarJsonCache(ObjectMapper objectMapper, @Value("${car.json-cache.max-bytes:33554432}") long maxBytes) {
+        this.writer = objectMapper.writerFor(Car.class);
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] get(Car car) {
+        byte[] body;
+        synchronized (bodies) {
+            body = lookup(car);
+        }
+        if (body == null) {
+            body = serialize(car);
+            synchronized (bodies) {
+                store(car, body);
+            }
+        }
+        return body;
+    }
+
+    public void writeArray(List<Car> cars, OutputStream out) throws IOException {
+        byte[][] segments = new byte[cars.size()][];
+        boolean[] missed = new boolean[segments.length];
+        int misses = 0;
+        synchronized (bodies) {
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = lookup(cars.get(i));
+                if (segments[i] == null) {
+                    missed[i] = true;
+                    misses++;
+                }
+            }
+        }
+
+        if (misses > 0) {
+            for (int i = 0; i < segments.length; i++) {
+                if (missed[i]) {
+                    segments[i] = serialize(cars.get(i));
+                }
+            }
+            synchronized (bodies) {
+                for (int i = 0; i < segments.length; i++) {
+                    if (missed[i]) {
+                        store(cars.get(i), segments[i]);
+                    }
+                }
+            }
+        }
+
+        out.write(START_ARRAY);
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                out.write(SEPARATOR);
+            }
+            out.write(segments[i]);
+        }
+        out.write(END_ARRAY);
+    }
+
+    public long getUsedBytes() {
+        synchronized (bodies) {
+            return usedBytes;
+        }
+    }
+
+    public void evict(long id) {
+        synchronized (bodies) {
+            Entry removed = bodies.remove(id);
+            if (removed != null) {
+                usedBytes -= removed.cost();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (bodies) {
+            bodies.clear();
+            usedBytes = 0;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isBulk()) {
+            clear();
+        } else {
+            evict(event.getCarId());
+        }
+    }
+
+    private byte[] lookup(Car car) {
+        Entry entry = bodies.get(car.getCarId());
+        return entry != null && entry.version() == car.getVersion() ? entry.body() : null;
+    }
+
+    private void store(Car car, byte[] body) {
+        Entry entry = new Entry(car.getVersion(), body);
+        Entry previous = bodies.put(car.getCarId(), entry);
+        usedBytes += entry.cost() - (previous != null ? previous.cost() : 0);
+
+        Iterator<Entry> eldest = bodies.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().cost();
+            eldest.remove();
+        }
+    }
+
+    private byte[] serialize(Car car) {
+        try {
+            return writer.writeValueAsBytes(car);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Entry(long version, byte[] body) {
+        long cost() {
+            return body.length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
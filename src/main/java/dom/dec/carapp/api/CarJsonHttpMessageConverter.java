@@ -0,0 +1,76 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.tracing.Span;
+import dom.dec.carapp.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@link Car} responses from the {@link CarJsonCache}; everything else is left to Jackson.
+ */
+@Component
+public class CarJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private CarJsonCache cache;
+
+    @Autowired
+    public CarJsonHttpMessageConverter(CarJsonCache cache) {
+        super(MediaType.APPLICATION_JSON);
+        this.cache = cache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Car.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type instanceof ParameterizedType parameterized) {
+            return isCarList(parameterized) && canWrite(mediaType);
+        }
+        return canWrite(clazz, mediaType);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached car JSON is response-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached car JSON is response-only", inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (Span span = Tracing.start(Tracing.SERIALIZATION, "CarJsonHttpMessageConverter.write")) {
+            if (body instanceof Car car) {
+                outputMessage.getBody().write(cache.get(car));
+            } else {
+                cache.writeArray((List<Car>) body, outputMessage.getBody());
+            }
+        }
+    }
+
+    private static boolean isCarList(ParameterizedType type) {
+        return type.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)
+                && type.getActualTypeArguments()[0] == Car.class;
+    }
+}
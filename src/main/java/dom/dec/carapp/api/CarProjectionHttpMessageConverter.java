@@ -0,0 +1,88 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.tracing.Span;
+import dom.dec.carapp.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes only the projected properties, straight from the loaded tuple values.
+ */
+@Component
+public class CarProjectionHttpMessageConverter extends AbstractHttpMessageConverter<CarProjectionDto> {
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public CarProjectionHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CarProjectionDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CarProjectionDto readInternal(Class<? extends CarProjectionDto> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Car projections are response-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(CarProjectionDto projection, HttpOutputMessage outputMessage) throws IOException {
+        try (Span span = Tracing.start(Tracing.SERIALIZATION, "CarProjectionHttpMessageConverter.write")) {
+            List<String> fields = projection.getFields();
+            SerializedString[] names = new SerializedString[fields.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = new SerializedString(fields.get(i));
+            }
+
+            try (JsonGenerator generator = objectMapper.getFactory()
+                    .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+                for (Object[] row : projection.getRows()) {
+                    generator.writeStartObject();
+                    for (int i = 0; i < names.length; i++) {
+                        generator.writeFieldName(names[i]);
+                        writeValue(generator, row[i]);
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String text) {
+            generator.writeString(text);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Enum<?> constant) {
+            generator.writeString(constant.name());
+        } else {
+            generator.writeObject(value);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.resilience.StaleResults;
+import dom.dec.carapp.service.CarService;
+import dom.dec.carapp.tracing.Span;
+import dom.dec.carapp.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent requests for the same year range share one database load. Nothing is kept once the load completes.
+ */
+@Component
+public class CarQueryCoalescer {
+    public static final byte[] NO_CARS = new byte[0];
+
+    private CarService carService;
+    private CarJsonCache jsonCache;
+    private ConcurrentMap<YearRange, CompletableFuture<Loaded>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CarQueryCoalescer(CarService carService, CarJsonCache jsonCache) {
+        this.carService = carService;
+        this.jsonCache = jsonCache;
+    }
+
+    public byte[] findAllByYear(long from, long to) {
+        YearRange key = new YearRange(Math.min(from, to), Math.max(from, to));
+
+        CompletableFuture<Loaded> shared = inFlight.get(key);
+        if (shared == null) {
+            CompletableFuture<Loaded> own = new CompletableFuture<>();
+            shared = inFlight.putIfAbsent(key, own);
+            if (shared == null) {
+                return load(key, own);
+            }
+        }
+
+        try {
+            Loaded loaded = shared.join();
+            if (loaded.staleSince() != null) {
+                StaleResults.mark(loaded.staleSince());
+            }
+            return loaded.body();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private byte[] load(YearRange key, CompletableFuture<Loaded> future) {
+        try {
+            List<Car> cars = carService.findAllByYear(key.min(), key.max());
+            byte[] body = cars.isEmpty() ? NO_CARS : toJson(cars);
+            future.complete(new Loaded(body, StaleResults.loadedAt()));
+            return body;
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException(e);
+            future.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private byte[] toJson(List<Car> cars) throws IOException {
+        try (Span span = Tracing.start(Tracing.SERIALIZATION, "CarQueryCoalescer.toJson")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(cars.size() * 96);
+            jsonCache.writeArray(cars, out);
+            span.setAttribute("cars", cars.size());
+            return out.toByteArray();
+        }
+    }
+
+    private record YearRange(long min, long max) {
+    }
+
+    private record Loaded(byte[] body, Instant staleSince) {
+    }
+}
@@ -0,0 +1,50 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.service.FleetAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@Profile("!embedded")
+@RequestMapping("/analytics")
+@CrossOrigin
+public class FleetAnalyticsApi {
+    private static final String MIN_YEAR = "1900";
+    private static final String MAX_YEAR = "9999";
+
+    private FleetAnalyticsService analyticsService;
+
+    @Autowired
+    public FleetAnalyticsApi(FleetAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/years")
+    public ResponseEntity<Map<Long, Long>> getYearHistogram(@RequestParam(name = "from", defaultValue = MIN_YEAR) long from,
+                                                           @RequestParam(name = "to", defaultValue = MAX_YEAR) long to) {
+        return ResponseEntity.ok(analyticsService.yearHistogram(from, to));
+    }
+
+    @GetMapping("/colors")
+    public ResponseEntity<Map<Color, Long>> getColorDistribution(@RequestParam(name = "from", defaultValue = MIN_YEAR) long from,
+                                                                @RequestParam(name = "to", defaultValue = MAX_YEAR) long to) {
+        return ResponseEntity.ok(analyticsService.colorDistribution(from, to));
+    }
+
+    @GetMapping("/brands")
+    public ResponseEntity<Map<String, Long>> getBrandDistribution(@RequestParam(name = "from", defaultValue = MIN_YEAR) long from,
+                                                                 @RequestParam(name = "to", defaultValue = MAX_YEAR) long to) {
+        return ResponseEntity.ok(analyticsService.brandDistribution(from, to));
+    }
+
+    @GetMapping("/models")
+    public ResponseEntity<Map<String, Long>> getModelDistribution(@RequestParam(name = "from", defaultValue = MIN_YEAR) long from,
+                                                                 @RequestParam(name = "to", defaultValue = MAX_YEAR) long to) {
+        return ResponseEntity.ok(analyticsService.modelDistribution(from, to));
+    }
+}
@@ -0,0 +1,61 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.dto.RecordingDto;
+import dom.dec.carapp.exception.CustomError;
+import dom.dec.carapp.service.ProfilingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin/profiling")
+public class ProfilingApi {
+    private ProfilingService profilingService;
+
+    @Autowired
+    public ProfilingApi(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingDto> getCurrent() {
+        return profilingService.findCurrent()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<RecordingDto> start(@RequestParam(name = "settings", defaultValue = "default") String settings) {
+        return ResponseEntity.ok(profilingService.start(settings));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<RecordingDto> stop() {
+        return ResponseEntity.ok(profilingService.stop());
+    }
+
+    @PostMapping("/dump")
+    public ResponseEntity<RecordingDto> dump() {
+        return ResponseEntity.ok(profilingService.dump());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<CustomError> handleConflict(IllegalStateException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
+                HttpStatus.CONFLICT.value());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<CustomError> handleBadRequest(IllegalArgumentException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
+                HttpStatus.BAD_REQUEST.value());
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+}
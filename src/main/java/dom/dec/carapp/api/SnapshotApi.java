@@ -0,0 +1,41 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.dto.SnapshotDto;
+import dom.dec.carapp.service.SnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/snapshots")
+@Profile("durable")
+public class SnapshotApi {
+    private SnapshotService snapshotService;
+
+    @Autowired
+    public SnapshotApi(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SnapshotDto>> getAll() {
+        List<SnapshotDto> snapshots = snapshotService.findAll();
+
+        if (snapshots.size() == 0) {
+            return ResponseEntity.noContent().build();
+        }
+
+        return ResponseEntity.ok(snapshots);
+    }
+
+    @PostMapping
+    public ResponseEntity<SnapshotDto> createSnapshot() {
+        SnapshotDto snapshot = snapshotService.createSnapshot();
+        URI uri = URI.create("/admin/snapshots/" + snapshot.getFileName());
+        return ResponseEntity.created(uri).body(snapshot);
+    }
+}
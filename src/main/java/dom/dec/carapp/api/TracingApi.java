@@ -0,0 +1,38 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.dto.TraceDto;
+import dom.dec.carapp.tracing.TraceRecorder;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/traces")
+@Validated
+@ConditionalOnProperty(name = "car.tracing.enabled", havingValue = "true")
+public class TracingApi {
+    private TraceRecorder recorder;
+
+    @Autowired
+    public TracingApi(TraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TraceDto>> getSlowest(@RequestParam(name = "limit", defaultValue = "20") @Min(value = 1, message = "Limit param cannot be less than 1") @Max(value = 1000, message = "Limit param cannot be greater than 1000") int limit) {
+        return ResponseEntity.ok(recorder.findSlowest(limit));
+    }
+
+    @GetMapping("/{traceId}")
+    public ResponseEntity<TraceDto> getById(@PathVariable("traceId") String traceId) {
+        return recorder.findById(traceId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,39 @@
+package dom.dec.carapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dom.dec.carapp.service.SnapshotRestorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Paths;
+
+@Configuration
+@Profile("durable")
+public class DurableStorageConfig {
+    private static final Logger log = LoggerFactory.getLogger(DurableStorageConfig.class);
+
+    @Bean
+    public SnapshotRestorer snapshotRestorer(@Value("${car.storage.directory}") String directory,
+                                             @Value("${car.storage.database-name}") String databaseName,
+                                             @Value("${car.storage.snapshot-directory}") String snapshotDirectory) {
+        return new SnapshotRestorer(Paths.get(directory), databaseName, Paths.get(snapshotDirectory));
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties, SnapshotRestorer restorer,
+                                       @Value("${car.storage.restore-from:}") String restoreFrom) {
+        long start = System.nanoTime();
+        restorer.restoreIfAbsent(restoreFrom).ifPresent(snapshot ->
+                log.info("Restored {} from snapshot {} in {} ms", restorer.getDatabaseFile(), snapshot,
+                        (System.nanoTime() - start) / 1_000_000));
+
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,59 @@
+package dom.dec.carapp.config;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.storage.CarStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@Profile("embedded")
+public class EmbeddedStorageConfig {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStorageConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CarStore carStore(@Value("${car.embedded.directory:./data/embedded}") String directory,
+                             @Value("${car.embedded.fsync:true}") boolean fsync,
+                             @Value("${car.embedded.group-commit-window-us:200}") long groupCommitWindowMicros,
+                             @Value("${car.embedded.seed:classpath:db/embedded/cars.csv}") Resource seed)
+            throws IOException {
+        CarStore store = CarStore.open(Paths.get(directory), fsync, TimeUnit.MICROSECONDS.toNanos(groupCommitWindowMicros));
+        if (store.isNew() && seed.exists()) {
+            List<Car> cars = readSeed(seed);
+            store.insertAll(cars);
+            log.info("Seeded new car store {} with {} cars from {}", directory, cars.size(), seed);
+        }
+        return store;
+    }
+
+    // embedded counterpart of the data migration
+    public static List<Car> readSeed(Resource seed) throws IOException {
+        List<Car> cars = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(seed.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.readLine();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                cars.add(new Car(columns[0].trim(), columns[1].trim(), Color.valueOf(columns[2].trim()),
+                        Long.parseLong(columns[3].trim())));
+            }
+        }
+        return cars;
+    }
+}
@@ -0,0 +1,20 @@
+package dom.dec.carapp.config;
+
+import dom.dec.carapp.monitoring.CarServiceEventInterceptor;
+import dom.dec.carapp.service.CarService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MonitoringConfig {
+
+    @Bean
+    public Advisor carServiceEventAdvisor() {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(CarService.class)),
+                new CarServiceEventInterceptor());
+    }
+}
@@ -0,0 +1,58 @@
+package dom.dec.carapp.config;
+
+import dom.dec.carapp.resilience.CarServiceCircuitBreakerInterceptor;
+import dom.dec.carapp.resilience.CircuitBreaker;
+import dom.dec.carapp.resilience.QueryTimeout;
+import dom.dec.carapp.service.CarService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "car.resilience.enabled", havingValue = "true")
+public class ResilienceConfig {
+
+    @Bean
+    public static BeanPostProcessor queryTimeoutPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? QueryTimeout.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public CircuitBreaker carDatabaseCircuitBreaker(@Value("${car.resilience.failure-threshold:5}") int failureThreshold,
+                                                    @Value("${car.resilience.open-duration-ms:5000}") long openMillis) {
+        return new CircuitBreaker(failureThreshold, Duration.ofMillis(openMillis));
+    }
+
+    @Bean
+    public CarServiceCircuitBreakerInterceptor carServiceCircuitBreakerInterceptor(CircuitBreaker carDatabaseCircuitBreaker,
+                                                                                   @Value("${car.resilience.query-timeout-seconds:2}") int queryTimeoutSeconds,
+                                                                                   @Value("${car.resilience.max-stale-ms:60000}") long maxStaleMillis,
+                                                                                   @Value("${car.resilience.max-stale-rows:100000}") long maxStaleRows) {
+        return new CarServiceCircuitBreakerInterceptor(carDatabaseCircuitBreaker, queryTimeoutSeconds,
+                Duration.ofMillis(maxStaleMillis), maxStaleRows);
+    }
+
+    // outside the transaction advice, so a rejected write never borrows a connection and the timeout covers the commit
+    @Bean
+    public Advisor carServiceCircuitBreakerAdvisor(CarServiceCircuitBreakerInterceptor carServiceCircuitBreakerInterceptor) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(CarService.class)),
+                carServiceCircuitBreakerInterceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,56 @@
+package dom.dec.carapp.config;
+
+import dom.dec.carapp.service.CarBatchQueryService;
+import dom.dec.carapp.service.CarService;
+import dom.dec.carapp.tracing.TracingInterceptor;
+import dom.dec.carapp.tracing.TracingJackson2HttpMessageConverter;
+import dom.dec.carapp.tracing.Tracing;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "car.tracing.enabled", havingValue = "true")
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public Advisor controllerTracingAdvisor() {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(RestController.class, true),
+                new TracingInterceptor(Tracing.CONTROLLER));
+    }
+
+    @Bean
+    public Advisor serviceTracingAdvisor() {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(CarService.class))
+                .union(new RootClassFilter(CarBatchQueryService.class)),
+                new TracingInterceptor(Tracing.SERVICE));
+    }
+
+    @Bean
+    public Advisor repositoryTracingAdvisor() {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(Repository.class)),
+                new TracingInterceptor(Tracing.REPOSITORY));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                converters.set(i, new TracingJackson2HttpMessageConverter(jackson.getObjectMapper()));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dom.dec.carapp.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * Keeps the id it had in {@code cars}, so it can be moved back unchanged.
+ */
+@Entity
+@Table(name = "cars_archive")
+public class ArchivedCar {
+
+    @Id
+    private long carId;
+    private String brand;
+    private String model;
+    @Enumerated(value = EnumType.STRING)
+    private Color color;
+    private long productionYear;
+    @Version
+    private long version;
+
+    public ArchivedCar() {
+    }
+
+    public Car toCar() {
+        Car car = new Car(brand, model, color, productionYear);
+        car.setCarId(carId);
+        car.setVersion(version);
+        return car;
+    }
+
+    public long getCarId() {
+        return carId;
+    }
+
+    public void setCarId(long carId) {
+        this.carId = carId;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    public long getProductionYear() {
+        return productionYear;
+    }
+
+    public void setProductionYear(long productionYear) {
+        this.productionYear = productionYear;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ArchivedCar car = (ArchivedCar) o;
+
+        return carId == car.carId;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (carId ^ (carId >>> 32));
+    }
+}
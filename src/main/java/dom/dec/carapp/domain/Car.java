@@ -1,5 +1,6 @@
 package dom.dec.carapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -14,6 +15,9 @@ public class Car {
     @Enumerated(value = EnumType.STRING)
     private Color color;
     private long productionYear;
+    @Version
+    @JsonIgnore
+    private long version;
 
     public Car(String brand, String model, Color color, long productionYear) {
         this.brand = brand;
@@ -68,6 +72,14 @@ public class Car {
         this.productionYear = productionYear;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
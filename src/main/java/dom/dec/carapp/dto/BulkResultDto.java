@@ -0,0 +1,30 @@
+package dom.dec.carapp.dto;
+
+public class BulkResultDto {
+    private long affected;
+    private boolean dryRun;
+
+    public BulkResultDto(long affected, boolean dryRun) {
+        this.affected = affected;
+        this.dryRun = dryRun;
+    }
+
+    public BulkResultDto() {
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public void setAffected(long affected) {
+        this.affected = affected;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+}
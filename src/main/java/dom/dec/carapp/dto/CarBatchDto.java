@@ -0,0 +1,34 @@
+package dom.dec.carapp.dto;
+
+import dom.dec.carapp.domain.Car;
+
+import java.util.List;
+
+public class CarBatchDto {
+    private List<Car> cars;
+    private List<Long> missing;
+
+    public CarBatchDto(List<Car> cars, List<Long> missing) {
+        this.cars = cars;
+        this.missing = missing;
+    }
+
+    public CarBatchDto() {
+    }
+
+    public List<Car> getCars() {
+        return cars;
+    }
+
+    public void setCars(List<Car> cars) {
+        this.cars = cars;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<Long> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,94 @@
+package dom.dec.carapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dom.dec.carapp.domain.Color;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+
+public class CarFilterDto {
+
+    private String brand;
+
+    private String model;
+
+    private Color color;
+
+    @Min(value = 1900, message = "From param cannot be less than 1900")
+    private Long from;
+
+    @Min(value = 1900, message = "To param cannot be less than 1900")
+    private Long to;
+
+    public CarFilterDto(String brand, String model, Color color, Long from, Long to) {
+        this.brand = brand;
+        this.model = model;
+        this.color = color;
+        this.from = from;
+        this.to = to;
+    }
+
+    public CarFilterDto() {
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Filter must contain at least one of brand, model, color, from or to")
+    public boolean isRestricted() {
+        return brand != null || model != null || color != null || from != null || to != null;
+    }
+
+    @JsonIgnore
+    public Long getMinYear() {
+        if (from == null || to == null) {
+            return from;
+        }
+        return Math.min(from, to);
+    }
+
+    @JsonIgnore
+    public Long getMaxYear() {
+        if (from == null || to == null) {
+            return to;
+        }
+        return Math.max(from, to);
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    public Long getFrom() {
+        return from;
+    }
+
+    public void setFrom(Long from) {
+        this.from = from;
+    }
+
+    public Long getTo() {
+        return to;
+    }
+
+    public void setTo(Long to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,69 @@
+package dom.dec.carapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dom.dec.carapp.domain.Color;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+
+public class CarPatchDto {
+
+    @Size(min = 2, message = "Brand cannot be less than 2 characters")
+    private String brand;
+
+    @Size(min = 1, message = "Model cannot be less than 1 character")
+    private String model;
+
+    private Color color;
+
+    @Min(value = 1900, message = "Production year cannot be less than 1900")
+    private Long productionYear;
+
+    public CarPatchDto(String brand, String model, Color color, Long productionYear) {
+        this.brand = brand;
+        this.model = model;
+        this.color = color;
+        this.productionYear = productionYear;
+    }
+
+    public CarPatchDto() {
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Patch must change at least one of brand, model, color or productionYear")
+    public boolean isChanging() {
+        return brand != null || model != null || color != null || productionYear != null;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public Color getColor() {
+        return color;
+    }
+
+    public void setColor(Color color) {
+        this.color = color;
+    }
+
+    public Long getProductionYear() {
+        return productionYear;
+    }
+
+    public void setProductionYear(Long productionYear) {
+        this.productionYear = productionYear;
+    }
+}
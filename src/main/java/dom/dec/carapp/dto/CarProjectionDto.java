@@ -0,0 +1,35 @@
+package dom.dec.carapp.dto;
+
+import java.util.List;
+
+/**
+ * Each row holds the values of {@link #getFields()} in the same order.
+ */
+public class CarProjectionDto {
+    private List<String> fields;
+    private List<Object[]> rows;
+
+    public CarProjectionDto(List<String> fields, List<Object[]> rows) {
+        this.fields = fields;
+        this.rows = rows;
+    }
+
+    public CarProjectionDto() {
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<Object[]> rows) {
+        this.rows = rows;
+    }
+}
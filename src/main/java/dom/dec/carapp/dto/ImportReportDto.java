@@ -0,0 +1,62 @@
+package dom.dec.carapp.dto;
+
+import java.util.List;
+
+public class ImportReportDto {
+    private long imported;
+    private long rejected;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<RejectedRowDto> rejections;
+
+    public ImportReportDto(long imported, long rejected, long durationMillis, List<RejectedRowDto> rejections) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.durationMillis = durationMillis;
+        this.rowsPerSecond = durationMillis == 0 ? imported : imported * 1000.0 / durationMillis;
+        this.rejections = rejections;
+    }
+
+    public ImportReportDto() {
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<RejectedRowDto> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<RejectedRowDto> rejections) {
+        this.rejections = rejections;
+    }
+}
@@ -0,0 +1,80 @@
+package dom.dec.carapp.dto;
+
+import java.time.Instant;
+
+public class RecordingDto {
+    private long id;
+    private String name;
+    private String state;
+    private Instant startTime;
+    private Instant stopTime;
+    private String dumpFile;
+    private long dumpSizeBytes;
+
+    public RecordingDto(long id, String name, String state, Instant startTime, Instant stopTime) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.startTime = startTime;
+        this.stopTime = stopTime;
+    }
+
+    public RecordingDto() {
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getStopTime() {
+        return stopTime;
+    }
+
+    public void setStopTime(Instant stopTime) {
+        this.stopTime = stopTime;
+    }
+
+    public String getDumpFile() {
+        return dumpFile;
+    }
+
+    public void setDumpFile(String dumpFile) {
+        this.dumpFile = dumpFile;
+    }
+
+    public long getDumpSizeBytes() {
+        return dumpSizeBytes;
+    }
+
+    public void setDumpSizeBytes(long dumpSizeBytes) {
+        this.dumpSizeBytes = dumpSizeBytes;
+    }
+}
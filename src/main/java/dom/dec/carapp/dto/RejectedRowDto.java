@@ -0,0 +1,30 @@
+package dom.dec.carapp.dto;
+
+public class RejectedRowDto {
+    private long line;
+    private String message;
+
+    public RejectedRowDto(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public RejectedRowDto() {
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
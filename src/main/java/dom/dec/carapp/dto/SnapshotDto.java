@@ -0,0 +1,52 @@
+package dom.dec.carapp.dto;
+
+import java.time.LocalDateTime;
+
+public class SnapshotDto {
+    private String fileName;
+    private long sizeBytes;
+    private LocalDateTime createdAt;
+    private long durationMillis;
+
+    public SnapshotDto(String fileName, long sizeBytes, LocalDateTime createdAt, long durationMillis) {
+        this.fileName = fileName;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = createdAt;
+        this.durationMillis = durationMillis;
+    }
+
+    public SnapshotDto() {
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,93 @@
+package dom.dec.carapp.dto;
+
+import java.util.Map;
+
+public class SpanDto {
+    private String spanId;
+    private String parentSpanId;
+    private String stage;
+    private String name;
+    private long startMicros;
+    private long durationMicros;
+    private Map<String, String> attributes;
+    private String error;
+
+    public SpanDto(String spanId, String parentSpanId, String stage, String name, long startMicros,
+                   long durationMicros, Map<String, String> attributes, String error) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.stage = stage;
+        this.name = name;
+        this.startMicros = startMicros;
+        this.durationMicros = durationMicros;
+        this.attributes = attributes;
+        this.error = error;
+    }
+
+    public SpanDto() {
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public void setSpanId(String spanId) {
+        this.spanId = spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public void setParentSpanId(String parentSpanId) {
+        this.parentSpanId = parentSpanId;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    public void setStartMicros(long startMicros) {
+        this.startMicros = startMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public void setDurationMicros(long durationMicros) {
+        this.durationMicros = durationMicros;
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, String> attributes) {
+        this.attributes = attributes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,85 @@
+package dom.dec.carapp.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class TraceDto {
+    private String traceId;
+    private String name;
+    private Instant startedAt;
+    private long durationMicros;
+    private Map<String, Long> selfMicrosByStage;
+    private List<SpanDto> spans;
+    private int droppedSpans;
+
+    public TraceDto(String traceId, String name, Instant startedAt, long durationMicros,
+                    Map<String, Long> selfMicrosByStage, List<SpanDto> spans, int droppedSpans) {
+        this.traceId = traceId;
+        this.name = name;
+        this.startedAt = startedAt;
+        this.durationMicros = durationMicros;
+        this.selfMicrosByStage = selfMicrosByStage;
+        this.spans = spans;
+        this.droppedSpans = droppedSpans;
+    }
+
+    public TraceDto() {
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public void setDurationMicros(long durationMicros) {
+        this.durationMicros = durationMicros;
+    }
+
+    public Map<String, Long> getSelfMicrosByStage() {
+        return selfMicrosByStage;
+    }
+
+    public void setSelfMicrosByStage(Map<String, Long> selfMicrosByStage) {
+        this.selfMicrosByStage = selfMicrosByStage;
+    }
+
+    public List<SpanDto> getSpans() {
+        return spans;
+    }
+
+    public void setSpans(List<SpanDto> spans) {
+        this.spans = spans;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public void setDroppedSpans(int droppedSpans) {
+        this.droppedSpans = droppedSpans;
+    }
+}
@@ -0,0 +1,48 @@
+package dom.dec.carapp.dto;
+
+import jakarta.validation.constraints.Min;
+
+public class YearRangeDto {
+    @Min(value = 1900, message = "From param cannot be less than 1900")
+    private long from;
+
+    @Min(value = 1900, message = "To param cannot be less than 1900")
+    private long to;
+
+    public YearRangeDto(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public YearRangeDto() {
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public long getMinYear() {
+        return Math.min(from, to);
+    }
+
+    public long getMaxYear() {
+        return Math.max(from, to);
+    }
+
+    @Override
+    public String toString() {
+        return from + "-" + to;
+    }
+}
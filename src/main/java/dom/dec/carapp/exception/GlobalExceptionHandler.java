@@ -1,6 +1,10 @@
 package dom.dec.carapp.exception;
 
+import dom.dec.carapp.monitoring.ApiErrorEvent;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +24,7 @@ public class GlobalExceptionHandler {
         CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
                 HttpStatus.NOT_FOUND.value());
 
+        ApiErrorEvent.emit(HttpStatus.NOT_FOUND.value(), e, request.getDescription(false));
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
@@ -32,6 +37,7 @@ public class GlobalExceptionHandler {
             errors.add(customError);
         });
 
+        ApiErrorEvent.emit(HttpStatus.BAD_REQUEST.value(), e, request.getDescription(false));
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
@@ -40,14 +46,54 @@ public class GlobalExceptionHandler {
         CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
                 HttpStatus.BAD_REQUEST.value());
 
+        ApiErrorEvent.emit(HttpStatus.BAD_REQUEST.value(), e, request.getDescription(false));
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidFieldException.class)
+    public ResponseEntity<CustomError> handlerInvalidField(InvalidFieldException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
+                HttpStatus.BAD_REQUEST.value());
+
+        ApiErrorEvent.emit(HttpStatus.BAD_REQUEST.value(), e, request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<CustomError> handlerConcurrentUpdate(OptimisticLockingFailureException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), "Car was modified concurrently, retry the request",
+                request.getDescription(false), HttpStatus.CONFLICT.value());
+
+        ApiErrorEvent.emit(HttpStatus.CONFLICT.value(), e, request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<CustomError> handlerServiceUnavailable(ServiceUnavailableException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
+                HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        ApiErrorEvent.emit(HttpStatus.SERVICE_UNAVAILABLE.value(), e, request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(error);
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<CustomError> handlerQueryTimeout(QueryTimeoutException e, WebRequest request) {
+        CustomError error = new CustomError(LocalDate.now(), "Car database did not answer in time, retry later",
+                request.getDescription(false), HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        ApiErrorEvent.emit(HttpStatus.SERVICE_UNAVAILABLE.value(), e, request.getDescription(false));
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<CustomError> handlerInternalServerError(Exception e, WebRequest request) {
         CustomError error = new CustomError(LocalDate.now(), e.getMessage(), request.getDescription(false),
                 HttpStatus.INTERNAL_SERVER_ERROR.value());
 
+        ApiErrorEvent.emit(HttpStatus.INTERNAL_SERVER_ERROR.value(), e, request.getDescription(false));
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
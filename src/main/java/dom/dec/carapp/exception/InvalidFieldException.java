@@ -0,0 +1,16 @@
+package dom.dec.carapp.exception;
+
+import java.util.Collection;
+
+public class InvalidFieldException extends RuntimeException {
+    private String fieldName;
+
+    public InvalidFieldException(String fieldName, Collection<String> allowedFields) {
+        super("Unknown field '" + fieldName + "', expected one of " + allowedFields);
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+}
@@ -10,12 +10,18 @@ public class ResourceNotFoundException extends RuntimeException {
     private long fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, long fieldValue) {
-        super(String.format("%s not found with %s : %s", resourceName, fieldName, fieldValue));
+        // expected outcome, no stack trace needed
+        super(null, null, false, false);
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
 
+    @Override
+    public String getMessage() {
+        return resourceName + " not found with " + fieldName + " : " + fieldValue;
+    }
+
     public String getResourceName() {
         return resourceName;
     }
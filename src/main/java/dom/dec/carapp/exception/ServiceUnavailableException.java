@@ -0,0 +1,21 @@
+package dom.dec.carapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    private Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        // thrown for every rejected call while the database is down, so skip the stack trace
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
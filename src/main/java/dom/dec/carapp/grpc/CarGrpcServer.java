@@ -0,0 +1,84 @@
+package dom.dec.carapp.grpc;
+
+import dom.dec.carapp.service.CarService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Off unless {@code car.grpc.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "car.grpc.enabled", havingValue = "true")
+public class CarGrpcServer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CarGrpcServer.class);
+
+    private CarGrpcService service;
+    private String address;
+    private int port;
+    private long shutdownGraceMillis;
+    private volatile Server server;
+
+    @Autowired
+    public CarGrpcServer(CarService carService, Validator validator,
+                         @Value("${car.grpc.address:localhost}") String address,
+                         @Value("${car.grpc.port:9090}") int port,
+                         @Value("${car.grpc.shutdown-grace-ms:5000}") long shutdownGraceMillis) {
+        this.service = new CarGrpcService(carService, validator);
+        this.address = address;
+        this.port = port;
+        this.shutdownGraceMillis = shutdownGraceMillis;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forAddress(new InetSocketAddress(address, port))
+                    .addService(service)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start gRPC server on " + address + ":" + port, e);
+        }
+        log.info("gRPC server listening on {}:{}", address, server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGraceMillis, TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+}
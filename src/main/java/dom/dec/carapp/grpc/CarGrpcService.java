@@ -0,0 +1,220 @@
+package dom.dec.carapp.grpc;
+
+import com.google.protobuf.Empty;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.YearRangeDto;
+import dom.dec.carapp.exception.ResourceNotFoundException;
+import dom.dec.carapp.exception.ServiceUnavailableException;
+import dom.dec.carapp.service.CarService;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class CarGrpcService extends CarsGrpc.CarsImplBase {
+    private static final Logger log = LoggerFactory.getLogger(CarGrpcService.class);
+    static final int DEFAULT_CHUNK_SIZE = 500;
+    static final int MAX_CHUNK_SIZE = 10_000;
+
+    private CarService carService;
+    private Validator validator;
+
+    public CarGrpcService(CarService carService, Validator validator) {
+        this.carService = carService;
+        this.validator = validator;
+    }
+
+    @Override
+    public void findAll(Empty request, StreamObserver<CarList> responseObserver) {
+        respond(responseObserver, () -> toCarList(carService.findAll()));
+    }
+
+    @Override
+    public void findAllByYear(YearRange request, StreamObserver<CarList> responseObserver) {
+        respond(responseObserver, () -> {
+            YearRangeDto range = validate(toYearRange(request));
+            return toCarList(carService.findAllByYear(range.getMinYear(), range.getMaxYear()));
+        });
+    }
+
+    @Override
+    public void streamByYear(StreamByYearRequest request, StreamObserver<CarList> responseObserver) {
+        YearRangeDto range;
+        try {
+            range = validate(toYearRange(request.getRange()));
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+
+        int chunkSize = request.getChunkSize() > 0 ? Math.min(request.getChunkSize(), MAX_CHUNK_SIZE) : DEFAULT_CHUNK_SIZE;
+        ServerCallStreamObserver<CarList> call = (ServerCallStreamObserver<CarList>) responseObserver;
+        call.setOnCancelHandler(() -> log.debug("StreamByYear cancelled by the client"));
+        call.setOnReadyHandler(new ChunkWriter(call, range.getMinYear(), range.getMaxYear(), chunkSize));
+    }
+
+    @Override
+    public void save(CarData request, StreamObserver<CarMessage> responseObserver) {
+        respond(responseObserver, () -> toMessage(carService.saveCar(validate(toDto(request)))));
+    }
+
+    @Override
+    public void update(UpdateCarRequest request, StreamObserver<CarMessage> responseObserver) {
+        respond(responseObserver, () ->
+                toMessage(carService.updateCar(validate(toDto(request.getCar())), request.getCarId())));
+    }
+
+    @Override
+    public void delete(CarId request, StreamObserver<Empty> responseObserver) {
+        respond(responseObserver, () -> {
+            carService.deleteCar(request.getCarId());
+            return Empty.getDefaultInstance();
+        });
+    }
+
+    static CarMessage toMessage(Car car) {
+        return CarMessage.newBuilder()
+                .setCarId(car.getCarId())
+                .setBrand(car.getBrand())
+                .setModel(car.getModel())
+                .setColor(CarColor.valueOf(car.getColor().name()))
+                .setProductionYear(car.getProductionYear())
+                .build();
+    }
+
+    static CarList toCarList(List<Car> cars) {
+        CarList.Builder list = CarList.newBuilder();
+        for (Car car : cars) {
+            list.addCars(toMessage(car));
+        }
+        return list.build();
+    }
+
+    private static CarDto toDto(CarData data) {
+        Color color = switch (data.getColor()) {
+            case COLOR_UNSPECIFIED, UNRECOGNIZED -> null;
+            default -> Color.valueOf(data.getColor().name());
+        };
+        return new CarDto(data.getBrand(), data.getModel(), color, data.getProductionYear());
+    }
+
+    private static YearRangeDto toYearRange(YearRange range) {
+        return new YearRangeDto(range.getFrom(), range.getTo());
+    }
+
+    private <T> T validate(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return value;
+    }
+
+    private static <T> void respond(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            responseObserver.onError(toStatus(e));
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof ConstraintViolationException) {
+            return Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return Status.ABORTED.withDescription("Car was modified concurrently, retry the request").asRuntimeException();
+        }
+        if (e instanceof ServiceUnavailableException || e instanceof QueryTimeoutException) {
+            return Status.UNAVAILABLE.withDescription(e.getMessage()).asRuntimeException();
+        }
+        log.error("gRPC call failed", e);
+        return Status.INTERNAL.withDescription("Internal server error").asRuntimeException();
+    }
+
+    /**
+     * Sends only while the transport is ready, one production year at a time, skipping years without cars. gRPC runs
+     * the callbacks of one call one at a time, so the position needs no locking.
+     */
+    private class ChunkWriter implements Runnable {
+        private ServerCallStreamObserver<CarList> call;
+        private long lastYear;
+        private long maxYear;
+        private int chunkSize;
+        private List<Car> cars = List.of();
+        private int position;
+        private boolean completed;
+
+        ChunkWriter(ServerCallStreamObserver<CarList> call, long minYear, long maxYear, int chunkSize) {
+            this.call = call;
+            this.lastYear = minYear - 1;
+            this.maxYear = maxYear;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void run() {
+            while (!completed && !call.isCancelled() && call.isReady()) {
+                List<Car> chunk;
+                try {
+                    chunk = nextChunk();
+                } catch (RuntimeException e) {
+                    completed = true;
+                    call.onError(toStatus(e));
+                    return;
+                }
+                if (call.isCancelled()) {
+                    return;
+                }
+                if (chunk.isEmpty()) {
+                    completed = true;
+                    call.onCompleted();
+                    return;
+                }
+                call.onNext(toCarList(chunk));
+            }
+        }
+
+        private List<Car> nextChunk() {
+            List<Car> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && !call.isCancelled()) {
+                if (position >= cars.size()) {
+                    OptionalLong year = carService.findNextProductionYear(lastYear, maxYear);
+                    if (year.isEmpty()) {
+                        break;
+                    }
+                    lastYear = year.getAsLong();
+                    cars = carService.findAllByYear(lastYear, lastYear);
+                    position = 0;
+                    continue;
+                }
+                int end = Math.min(position + chunkSize - chunk.size(), cars.size());
+                chunk.addAll(cars.subList(position, end));
+                position = end;
+            }
+            return chunk;
+        }
+    }
+}
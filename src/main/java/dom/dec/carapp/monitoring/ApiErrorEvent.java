@@ -0,0 +1,31 @@
+package dom.dec.carapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("dom.dec.carapp.ApiError")
+@Label("API Error")
+@Category({"Car App", "Web"})
+@Description("Error response produced by GlobalExceptionHandler")
+public class ApiErrorEvent extends jdk.jfr.Event {
+    @Label("Status")
+    int status;
+
+    @Label("Exception")
+    String exception;
+
+    @Label("Request")
+    String request;
+
+    public static void emit(int status, Exception exception, String request) {
+        ApiErrorEvent event = new ApiErrorEvent();
+        if (event.shouldCommit()) {
+            event.status = status;
+            event.exception = exception.getClass().getName();
+            event.request = request;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dom.dec.carapp.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("dom.dec.carapp.CarService")
+@Label("Car Service Operation")
+@Category({"Car App", "Service"})
+@Description("One CarService call with its arguments and the number of cars it returned or changed")
+@StackTrace(false)
+public class CarServiceEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Car Id")
+    long carId = -1;
+
+    @Label("From Year")
+    long fromYear = -1;
+
+    @Label("To Year")
+    long toYear = -1;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failure")
+    String failure;
+}
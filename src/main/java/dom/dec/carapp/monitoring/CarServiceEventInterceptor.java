@@ -0,0 +1,81 @@
+package dom.dec.carapp.monitoring;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarBatchDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+
+/**
+ * Arguments and results are only inspected when the event will actually be committed.
+ */
+public class CarServiceEventInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CarServiceEvent event = new CarServiceEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        event.begin();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = invocation.getMethod().getName();
+                event.rows = rows(result);
+                describe(event, invocation.getArguments());
+                event.commit();
+            }
+        }
+    }
+
+    private static void describe(CarServiceEvent event, Object[] args) {
+        long[] numbers = new long[2];
+        int count = 0;
+        for (Object arg : args) {
+            if (arg instanceof Long number && count < numbers.length) {
+                numbers[count++] = number;
+            } else if (arg instanceof CarFilterDto filter) {
+                event.fromYear = filter.getMinYear() == null ? -1 : filter.getMinYear();
+                event.toYear = filter.getMaxYear() == null ? -1 : filter.getMaxYear();
+            }
+        }
+
+        if (count == 1) {
+            event.carId = numbers[0];
+        } else if (count == 2) {
+            event.fromYear = Math.min(numbers[0], numbers[1]);
+            event.toYear = Math.max(numbers[0], numbers[1]);
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof CarBatchDto batch) {
+            return batch.getCars().size();
+        }
+        if (result instanceof CarProjectionDto projection) {
+            return projection.getRows().size();
+        }
+        if (result instanceof Car) {
+            return 1;
+        }
+        if (result instanceof Long affected) {
+            return affected;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,119 @@
+package dom.dec.carapp.monitoring;
+
+import dom.dec.carapp.tracing.Span;
+import dom.dec.carapp.tracing.Tracing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+public final class MonitoredDataSource {
+
+    private MonitoredDataSource() {
+    }
+
+    public static DataSource wrap(DataSource target, Supplier<SqlLog> sqlLog) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection, sqlLog) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection target, Supplier<SqlLog> sqlLog) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            switch (method.getName()) {
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (CallableStatement) result, sql, sqlLog);
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (PreparedStatement) result, sql, sqlLog);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null, sqlLog);
+                default:
+                    return result;
+            }
+        });
+    }
+
+    private static <T extends Statement> T wrapStatement(Class<T> type, T target, String preparedSql,
+                                                         Supplier<SqlLog> sqlLog) {
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = invoke(target, method, args);
+                return result instanceof ResultSet resultSet && name.equals("getResultSet")
+                        ? wrapResultSet(resultSet, SqlStatistics.current()) : result;
+            }
+
+            SqlStatistics statistics = SqlStatistics.current();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            Object result;
+            long nanos;
+            try (Span span = Tracing.start(Tracing.JDBC, name)) {
+                span.setAttribute("db.statement", sql);
+                long start = System.nanoTime();
+                try {
+                    result = invoke(target, method, args);
+                } catch (Throwable e) {
+                    span.recordError(e);
+                    throw e;
+                }
+                nanos = System.nanoTime() - start;
+            }
+
+            if (statistics != null) {
+                statistics.statementExecuted(nanos);
+            }
+            sqlLog.get().statement(sql, nanos, statistics);
+
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, statistics) : result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet target, SqlStatistics statistics) {
+        if (statistics == null) {
+            return target;
+        }
+        return proxy(ResultSet.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                statistics.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MonitoredDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Monitored" + type.getSimpleName() + "[" + target + "]";
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
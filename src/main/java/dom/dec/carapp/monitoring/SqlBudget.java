@@ -0,0 +1,18 @@
+package dom.dec.carapp.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Per-request SQL limits of an endpoint; negative values mean unbounded.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int statements() default -1;
+
+    long rows() default -1;
+}
@@ -0,0 +1,59 @@
+package dom.dec.carapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class SqlBudgetInterceptor implements HandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+
+    private long slowRequestMillis;
+
+    @Autowired
+    public SqlBudgetInterceptor(@Value("${car.sql.slow-request-threshold-ms:500}") long slowRequestMillis) {
+        this.slowRequestMillis = slowRequestMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatistics.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+
+        SqlStatistics statistics = SqlStatistics.end();
+        if (statistics == null) {
+            return;
+        }
+        request.setAttribute(SqlStatistics.ATTRIBUTE, statistics);
+
+        SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+        if (budget != null && exceeds(budget, statistics)) {
+            log.warn("sql-budget-exceeded handler={} method={} uri={} {} budgetStatements={} budgetRows={}",
+                    handlerMethod.getShortLogMessage(), request.getMethod(), request.getRequestURI(), statistics,
+                    budget.statements(), budget.rows());
+        } else if (statistics.getElapsedMillis() >= slowRequestMillis) {
+            log.warn("slow-sql-request method={} uri={} {}", request.getMethod(), request.getRequestURI(), statistics);
+        }
+    }
+
+    public static boolean exceeds(SqlBudget budget, SqlStatistics statistics) {
+        return (budget.statements() >= 0 && statistics.getStatements() > budget.statements())
+                || (budget.rows() >= 0 && statistics.getRowsFetched() > budget.rows());
+    }
+}
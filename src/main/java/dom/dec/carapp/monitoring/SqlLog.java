@@ -0,0 +1,61 @@
+package dom.dec.carapp.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs slow statements always and the rest at the sample rate, from a background thread that drops entries when full.
+ */
+@Component
+public class SqlLog {
+    private static final Logger log = LoggerFactory.getLogger(SqlLog.class);
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private double sampleRate;
+    private long slowThresholdNanos;
+    private AtomicLong dropped = new AtomicLong();
+    private ThreadPoolExecutor writer;
+
+    @Autowired
+    public SqlLog(@Value("${car.sql.log.sample-rate:0.0}") double sampleRate,
+                  @Value("${car.sql.slow-query-threshold-ms:200}") long slowThresholdMillis) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sql-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.incrementAndGet());
+    }
+
+    public void statement(String sql, long nanos, SqlStatistics request) {
+        if (nanos >= slowThresholdNanos) {
+            String context = request == null ? "none" : request.toString();
+            writer.execute(() -> log.warn("slow-query durationMs={} request=[{}] sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), context, sql));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            writer.execute(() -> log.info("sql durationUs={} sql=\"{}\"", TimeUnit.NANOSECONDS.toMicros(nanos), sql));
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+}
@@ -0,0 +1,37 @@
+package dom.dec.carapp.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * {@link SqlLog} is resolved lazily to keep it out of early post-processor initialization.
+ */
+@Component
+public class SqlMonitoringPostProcessor implements BeanPostProcessor {
+    private ObjectProvider<SqlLog> sqlLogProvider;
+    private volatile SqlLog sqlLog;
+
+    public SqlMonitoringPostProcessor(ObjectProvider<SqlLog> sqlLogProvider) {
+        this.sqlLogProvider = sqlLogProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return MonitoredDataSource.wrap(dataSource, this::sqlLog);
+        }
+        return bean;
+    }
+
+    private SqlLog sqlLog() {
+        SqlLog resolved = sqlLog;
+        if (resolved == null) {
+            resolved = sqlLogProvider.getObject();
+            sqlLog = resolved;
+        }
+        return resolved;
+    }
+}
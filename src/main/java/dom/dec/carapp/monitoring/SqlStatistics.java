@@ -0,0 +1,80 @@
+package dom.dec.carapp.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SQL work of the current request; statements executed outside a request are not counted.
+ */
+public class SqlStatistics {
+    public static final String ATTRIBUTE = SqlStatistics.class.getName();
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private AtomicInteger statements = new AtomicInteger();
+    private AtomicLong rowsFetched = new AtomicLong();
+    private AtomicLong elapsedNanos = new AtomicLong();
+
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static SqlStatistics end() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatistics previous = CURRENT.get();
+            CURRENT.set(statistics);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void statementExecuted(long nanos) {
+        statements.incrementAndGet();
+        elapsedNanos.addAndGet(nanos);
+    }
+
+    void rowFetched() {
+        rowsFetched.incrementAndGet();
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + getStatements() + " rows=" + getRowsFetched() + " sqlMs=" + getElapsedMillis();
+    }
+}
@@ -0,0 +1,75 @@
+package dom.dec.carapp.repository;
+
+import dom.dec.carapp.domain.ArchivedCar;
+import dom.dec.carapp.domain.Color;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static dom.dec.carapp.repository.CarRepository.MATCHES_FILTER;
+
+@Repository
+public interface ArchivedCarRepository extends JpaRepository<ArchivedCar, Long> {
+
+    List<ArchivedCar> findAllByProductionYearBetween(long minYear, long maxYear);
+
+    @Query("SELECT MIN(c.productionYear) FROM ArchivedCar c WHERE c.productionYear > :after " +
+            "AND c.productionYear <= :maxYear")
+    Long findNextProductionYear(@Param("after") long after, @Param("maxYear") long maxYear);
+
+    /**
+     * One statement, so a concurrent update can never be lost between copying and deleting.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO cars_archive (car_id, brand, model, color, production_year, version) " +
+            "SELECT car_id, brand, model, color, production_year, version FROM OLD TABLE " +
+            "(DELETE FROM cars WHERE production_year < :cutoffYear FETCH FIRST :limit ROWS ONLY)", nativeQuery = true)
+    int archiveOlderThan(@Param("cutoffYear") long cutoffYear, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO cars (car_id, brand, model, color, production_year, version) " +
+            "SELECT car_id, brand, model, color, production_year, version FROM OLD TABLE " +
+            "(DELETE FROM cars_archive WHERE production_year >= :cutoffYear FETCH FIRST :limit ROWS ONLY)",
+            nativeQuery = true)
+    int restoreFrom(@Param("cutoffYear") long cutoffYear, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO cars (car_id, brand, model, color, production_year, version) " +
+            "SELECT car_id, brand, model, color, production_year, version FROM OLD TABLE " +
+            "(DELETE FROM cars_archive WHERE car_id IN (:ids))", nativeQuery = true)
+    int restoreAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedCar c WHERE c.carId = :id")
+    int deleteArchived(@Param("id") long id);
+
+    @Query("SELECT c.carId FROM ArchivedCar c WHERE " + MATCHES_FILTER)
+    List<Long> findIdsMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                               @Param("minYear") Long minYear, @Param("maxYear") Long maxYear);
+
+    @Query("SELECT COUNT(c) FROM ArchivedCar c WHERE " + MATCHES_FILTER)
+    long countMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ArchivedCar c SET c.brand = COALESCE(:newBrand, c.brand), " +
+            "c.model = COALESCE(:newModel, c.model), " +
+            "c.color = COALESCE(:newColor, c.color), " +
+            "c.productionYear = COALESCE(:newProductionYear, c.productionYear), " +
+            "c.version = c.version + 1 " +
+            "WHERE " + MATCHES_FILTER)
+    int updateMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear,
+                       @Param("newBrand") String newBrand, @Param("newModel") String newModel,
+                       @Param("newColor") Color newColor, @Param("newProductionYear") Long newProductionYear);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedCar c WHERE " + MATCHES_FILTER)
+    int deleteMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear);
+}
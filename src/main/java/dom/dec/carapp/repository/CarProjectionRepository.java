@@ -0,0 +1,14 @@
+package dom.dec.carapp.repository;
+
+import java.util.List;
+
+public interface CarProjectionRepository {
+
+    List<Object[]> findAllFields(List<String> fields);
+
+    List<Object[]> findAllFieldsByProductionYearBetween(List<String> fields, long minYear, long maxYear);
+
+    List<Object[]> findAllArchivedFields(List<String> fields);
+
+    List<Object[]> findAllArchivedFieldsByProductionYearBetween(List<String> fields, long minYear, long maxYear);
+}
@@ -0,0 +1,95 @@
+package dom.dec.carapp.repository;
+
+import dom.dec.carapp.domain.ArchivedCar;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.exception.InvalidFieldException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Field names are checked against the {@code Car} metamodel before any SQL is built.
+ */
+public class CarProjectionRepositoryImpl implements CarProjectionRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+    private volatile Set<String> attributeNames;
+
+    @Override
+    public List<Object[]> findAllFields(List<String> fields) {
+        return query(Car.class, fields, null, null);
+    }
+
+    @Override
+    public List<Object[]> findAllFieldsByProductionYearBetween(List<String> fields, long minYear, long maxYear) {
+        return query(Car.class, fields, minYear, maxYear);
+    }
+
+    @Override
+    public List<Object[]> findAllArchivedFields(List<String> fields) {
+        return query(ArchivedCar.class, fields, null, null);
+    }
+
+    @Override
+    public List<Object[]> findAllArchivedFieldsByProductionYearBetween(List<String> fields, long minYear, long maxYear) {
+        return query(ArchivedCar.class, fields, minYear, maxYear);
+    }
+
+    private List<Object[]> query(Class<?> entity, List<String> fields, Long minYear, Long maxYear) {
+        Set<String> attributes = attributeNames();
+        if (fields.isEmpty()) {
+            throw new InvalidFieldException("", attributes);
+        }
+        for (String field : fields) {
+            if (!attributes.contains(field)) {
+                throw new InvalidFieldException(field, attributes);
+            }
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> car = query.from(entity);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(car.get(field));
+        }
+        query.multiselect(selections);
+        if (minYear != null) {
+            query.where(builder.between(car.get("productionYear"), minYear, maxYear));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Object[]> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            rows.add(tuple.toArray());
+        }
+        return rows;
+    }
+
+    private Set<String> attributeNames() {
+        Set<String> names = attributeNames;
+        if (names == null) {
+            names = new TreeSet<>();
+            for (Attribute<? super Car, ?> attribute : entityManager.getMetamodel().entity(Car.class).getAttributes()) {
+                // the version is bookkeeping, not part of the public representation
+                if (!(attribute instanceof SingularAttribute<?, ?> singular && singular.isVersion())) {
+                    names.add(attribute.getName());
+                }
+            }
+            attributeNames = names;
+        }
+        return names;
+    }
+}
@@ -1,9 +1,47 @@
 package dom.dec.carapp.repository;
 
 import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {
+public interface CarRepository extends JpaRepository<Car, Long>, CarProjectionRepository {
+
+    String MATCHES_FILTER = "(:brand IS NULL OR c.brand = :brand) " +
+            "AND (:model IS NULL OR c.model = :model) " +
+            "AND (:color IS NULL OR c.color = :color) " +
+            "AND (:minYear IS NULL OR c.productionYear >= :minYear) " +
+            "AND (:maxYear IS NULL OR c.productionYear <= :maxYear)";
+
+    List<Car> findAllByProductionYearBetween(long minYear, long maxYear);
+
+    @Query("SELECT MIN(c.productionYear) FROM Car c WHERE c.productionYear > :after AND c.productionYear <= :maxYear")
+    Long findNextProductionYear(@Param("after") long after, @Param("maxYear") long maxYear);
+
+    @Query("SELECT COUNT(c) FROM Car c WHERE " + MATCHES_FILTER)
+    long countMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.brand = COALESCE(:newBrand, c.brand), " +
+            "c.model = COALESCE(:newModel, c.model), " +
+            "c.color = COALESCE(:newColor, c.color), " +
+            "c.productionYear = COALESCE(:newProductionYear, c.productionYear), " +
+            "c.version = c.version + 1 " +
+            "WHERE " + MATCHES_FILTER)
+    int updateMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear,
+                       @Param("newBrand") String newBrand, @Param("newModel") String newModel,
+                       @Param("newColor") Color newColor, @Param("newProductionYear") Long newProductionYear);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Car c WHERE " + MATCHES_FILTER)
+    int deleteMatching(@Param("brand") String brand, @Param("model") String model, @Param("color") Color color,
+                       @Param("minYear") Long minYear, @Param("maxYear") Long maxYear);
 }
@@ -0,0 +1,197 @@
+package dom.dec.carapp.resilience;
+
+import dom.dec.carapp.exception.ServiceUnavailableException;
+import dom.dec.carapp.service.CarChangedEvent;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves the last good result of year range reads while the breaker is open or the database fails. Kept results
+ * expire after the maximum stale age and are dropped on any {@link CarChangedEvent}.
+ */
+public class CarServiceCircuitBreakerInterceptor implements MethodInterceptor {
+    private static final String UNAVAILABLE = "Car database is unavailable, retry later";
+
+    private CircuitBreaker breaker;
+    private int queryTimeoutSeconds;
+    private Duration maxStaleAge;
+    private long maxStaleRows;
+    private Map<Key, LastGood> lastGood = new LinkedHashMap<>(16, 0.75f, true);
+    private long lastGoodRows;
+    private long generation;
+    private Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+
+    public CarServiceCircuitBreakerInterceptor(CircuitBreaker breaker, int queryTimeoutSeconds, Duration maxStaleAge,
+                                               long maxStaleRows) {
+        this.breaker = breaker;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.maxStaleAge = maxStaleAge;
+        this.maxStaleRows = maxStaleRows;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarChanged(CarChangedEvent event) {
+        generation++;
+        lastGood.clear();
+        lastGoodRows = 0;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Key key = staleKey(invocation);
+        if (key != null) {
+            return read(invocation, key);
+        }
+
+        if (!breaker.tryAcquire()) {
+            throw new ServiceUnavailableException(UNAVAILABLE, breaker.getRetryAfter());
+        }
+        return guarded(invocation);
+    }
+
+    private Object read(MethodInvocation invocation, Key key) throws Throwable {
+        LastGood last = lastGood(key);
+        boolean refresher = refreshing.add(key);
+        if (!refresher && last != null) {
+            return stale(last);
+        }
+
+        try {
+            if (!breaker.tryAcquire()) {
+                if (last != null) {
+                    return stale(last);
+                }
+                throw new ServiceUnavailableException(UNAVAILABLE, breaker.getRetryAfter());
+            }
+
+            Instant started = Instant.now();
+            long startedGeneration = generation();
+            try {
+                Object result = guarded(invocation);
+                remember(key, new LastGood((List<?>) result, started), startedGeneration);
+                return result;
+            } catch (Throwable e) {
+                if (last != null && isDatabaseFailure(e)) {
+                    return stale(last);
+                }
+                throw e;
+            }
+        } finally {
+            if (refresher) {
+                refreshing.remove(key);
+            }
+        }
+    }
+
+    // a missing car or a validation error means the database answered, so only database failures count
+    private Object guarded(MethodInvocation invocation) throws Throwable {
+        try {
+            Object result = QueryTimeout.call(queryTimeoutSeconds, invocation::proceed);
+            breaker.onSuccess();
+            return result;
+        } catch (Throwable e) {
+            if (isDatabaseFailure(e)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    static boolean isDatabaseFailure(Throwable e) {
+        if (e instanceof ConcurrencyFailureException) {
+            return false;
+        }
+        return e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private static Object stale(LastGood last) {
+        StaleResults.mark(last.loadedAt());
+        return last.result();
+    }
+
+    private synchronized LastGood lastGood(Key key) {
+        LastGood last = lastGood.get(key);
+        if (last != null && last.loadedAt().plus(maxStaleAge).isBefore(Instant.now())) {
+            forget(key);
+            return null;
+        }
+        return last;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void remember(Key key, LastGood result, long startedGeneration) {
+        // a refresh that started before a change, or before a faster refresh, must not replace the newer result
+        LastGood previous = lastGood.get(key);
+        if (startedGeneration != generation
+                || (previous != null && result.loadedAt().isBefore(previous.loadedAt()))) {
+            return;
+        }
+
+        forget(key);
+        if (result.result().size() > maxStaleRows) {
+            return;
+        }
+        lastGood.put(key, result);
+        lastGoodRows += result.result().size();
+        Iterator<LastGood> eldest = lastGood.values().iterator();
+        while (lastGoodRows > maxStaleRows) {
+            lastGoodRows -= eldest.next().result().size();
+            eldest.remove();
+        }
+    }
+
+    private void forget(Key key) {
+        LastGood removed = lastGood.remove(key);
+        if (removed != null) {
+            lastGoodRows -= removed.result().size();
+        }
+    }
+
+    private static Key staleKey(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        if (!List.class.isAssignableFrom(method.getReturnType())) {
+            return null;
+        }
+        Object[] args = invocation.getArguments();
+        if (method.getName().equals("findAll") && args.length == 0) {
+            return new Key(method.getName(), 0, 0);
+        }
+        if (method.getName().equals("findAllByYear") && args.length == 2
+                && args[0] instanceof Long from && args[1] instanceof Long to) {
+            return new Key(method.getName(), Math.min(from, to), Math.max(from, to));
+        }
+        return null;
+    }
+
+    private record Key(String method, long min, long max) {
+    }
+
+    private record LastGood(List<?> result, Instant loadedAt) {
+    }
+}
@@ -0,0 +1,76 @@
+package dom.dec.carapp.resilience;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Statements created outside {@link #call(int, Action)} get the timeout reset, because H2 keeps the last value on
+ * the connection.
+ */
+public final class QueryTimeout {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private QueryTimeout() {
+    }
+
+    public static <T> T call(int seconds, Action<T> action) throws Throwable {
+        Integer previous = CURRENT.get();
+        CURRENT.set(seconds);
+        try {
+            return action.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, result ->
+                result instanceof Connection connection ? wrapConnection(connection) : result);
+    }
+
+    private static Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, result -> {
+            if (result instanceof Statement statement) {
+                Integer seconds = CURRENT.get();
+                statement.setQueryTimeout(seconds == null ? 0 : seconds);
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryTimeout.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "QueryTimeout" + type.getSimpleName() + "[" + target + "]";
+                        default:
+                            try {
+                                return handler.handle(method.invoke(target, args));
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    public interface Action<T> {
+        T run() throws Throwable;
+    }
+
+    private interface ResultHandler {
+        Object handle(Object result) throws Exception;
+    }
+}
@@ -0,0 +1,30 @@
+package dom.dec.carapp.resilience;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+
+public final class StaleResults {
+    public static final String ATTRIBUTE = StaleResults.class.getName() + ".loadedAt";
+
+    private StaleResults() {
+    }
+
+    public static void mark(Instant loadedAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object current = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        // one request can combine several results, the oldest one decides how stale the response is
+        if (!(current instanceof Instant earlier) || loadedAt.isBefore(earlier)) {
+            attributes.setAttribute(ATTRIBUTE, loadedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static Instant loadedAt() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (Instant) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,188 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.ArchivedCar;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.repository.ArchivedCarRepository;
+import dom.dec.carapp.repository.CarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Every archived car is older than the cutoff, so only queries starting below it need the archive. A cutoff of 0
+ * disables tiering.
+ */
+@Component
+@Profile("!embedded")
+public class CarArchive {
+    private static final int ID_CHUNK_SIZE = 1_000;
+
+    private ArchivedCarRepository repository;
+    private CarRepository carRepository;
+    private long cutoffYear;
+
+    @Autowired
+    public CarArchive(ArchivedCarRepository repository, CarRepository carRepository,
+                      @Value("${car.tiering.cutoff-year:0}") long cutoffYear) {
+        this.repository = repository;
+        this.carRepository = carRepository;
+        this.cutoffYear = cutoffYear;
+    }
+
+    public boolean isEnabled() {
+        return cutoffYear > 0;
+    }
+
+    public long getCutoffYear() {
+        return cutoffYear;
+    }
+
+    public boolean overlaps(Long minYear) {
+        return isEnabled() && (minYear == null || minYear < cutoffYear);
+    }
+
+    public Optional<Car> findById(long id) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return repository.findById(id).map(ArchivedCar::toCar);
+    }
+
+    public List<Car> findAllById(List<Long> ids) {
+        if (!isEnabled() || ids.isEmpty()) {
+            return List.of();
+        }
+        return toCars(repository.findAllById(ids));
+    }
+
+    public List<Car> findAll() {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        return toCars(repository.findAll());
+    }
+
+    public List<Car> findAllByYear(long minYear, long maxYear) {
+        if (!overlaps(minYear)) {
+            return List.of();
+        }
+        return toCars(repository.findAllByProductionYearBetween(minYear, Math.min(maxYear, cutoffYear - 1)));
+    }
+
+    public OptionalLong findNextProductionYear(long after, long maxYear) {
+        if (!overlaps(after + 1)) {
+            return OptionalLong.empty();
+        }
+        Long year = repository.findNextProductionYear(after, Math.min(maxYear, cutoffYear - 1));
+        return year != null ? OptionalLong.of(year) : OptionalLong.empty();
+    }
+
+    public List<Object[]> findAllFields(List<String> fields) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        return carRepository.findAllArchivedFields(fields);
+    }
+
+    public List<Object[]> findAllFieldsByYear(List<String> fields, long minYear, long maxYear) {
+        if (!overlaps(minYear)) {
+            return List.of();
+        }
+        return carRepository.findAllArchivedFieldsByProductionYearBetween(fields, minYear,
+                Math.min(maxYear, cutoffYear - 1));
+    }
+
+    @Transactional
+    public Optional<Car> update(long id, CarDto newCar) {
+        Optional<ArchivedCar> found = isEnabled() ? repository.findById(id) : Optional.empty();
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ArchivedCar car = found.get();
+        car.setBrand(newCar.getBrand());
+        car.setModel(newCar.getModel());
+        car.setColor(newCar.getColor());
+        car.setProductionYear(newCar.getProductionYear());
+        repository.saveAndFlush(car);
+
+        if (car.getProductionYear() >= cutoffYear) {
+            repository.restoreAllById(List.of(id));
+        }
+        return Optional.of(car.toCar());
+    }
+
+    @Transactional
+    public boolean delete(long id) {
+        return isEnabled() && repository.deleteArchived(id) > 0;
+    }
+
+    public long countMatching(CarFilterDto filter) {
+        if (!overlaps(filter.getMinYear())) {
+            return 0;
+        }
+        return repository.countMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear());
+    }
+
+    // must run in the caller's transaction so both tiers change together
+    public long updateMatching(CarFilterDto filter, CarPatchDto patch) {
+        if (!overlaps(filter.getMinYear())) {
+            return 0;
+        }
+
+        boolean restore = patch.getProductionYear() != null && patch.getProductionYear() >= cutoffYear;
+        List<Long> ids = restore ? repository.findIdsMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear()) : List.of();
+
+        long updated = repository.updateMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear(),
+                patch.getBrand(), patch.getModel(), patch.getColor(), patch.getProductionYear());
+        for (int start = 0; start < ids.size(); start += ID_CHUNK_SIZE) {
+            repository.restoreAllById(ids.subList(start, Math.min(ids.size(), start + ID_CHUNK_SIZE)));
+        }
+        return updated;
+    }
+
+    public long deleteMatching(CarFilterDto filter) {
+        if (!overlaps(filter.getMinYear())) {
+            return 0;
+        }
+        return repository.deleteMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear());
+    }
+
+    @Transactional
+    public int restoreBatch(int batchSize) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return repository.restoreFrom(cutoffYear, batchSize);
+    }
+
+    @Transactional
+    public int archiveBatch(int batchSize) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return repository.archiveOlderThan(cutoffYear, batchSize);
+    }
+
+    private static List<Car> toCars(List<ArchivedCar> archived) {
+        List<Car> cars = new ArrayList<>(archived.size());
+        for (ArchivedCar car : archived) {
+            cars.add(car.toCar());
+        }
+        return cars;
+    }
+}
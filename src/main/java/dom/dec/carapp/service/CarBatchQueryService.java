@@ -0,0 +1,15 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.YearRangeDto;
+
+import java.util.List;
+
+
+public interface CarBatchQueryService {
+
+    /**
+     * Results are in the order the ranges were given.
+     */
+    List<List<Car>> findAllByYearRanges(List<YearRangeDto> ranges);
+}
@@ -0,0 +1,117 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.YearRangeDto;
+import dom.dec.carapp.monitoring.SqlStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Merges overlapping ranges so each year is read once; the caller runs the query itself when the pool is saturated.
+ */
+@Service
+public class CarBatchQueryServiceImpl implements CarBatchQueryService {
+    private static final int QUEUE_CAPACITY = 64;
+
+    private CarService carService;
+    private ThreadPoolExecutor executor;
+
+    @Autowired
+    public CarBatchQueryServiceImpl(CarService carService,
+                                    @Value("${car.filter.batch.parallelism:4}") int parallelism) {
+        this.carService = carService;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "car-filter-batch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public List<List<Car>> findAllByYearRanges(List<YearRangeDto> ranges) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+
+        List<long[]> merged = merge(ranges);
+
+        List<CompletableFuture<List<Car>>> loads = new ArrayList<>(merged.size());
+        for (int i = 0; i < merged.size() - 1; i++) {
+            long[] range = merged.get(i);
+            loads.add(CompletableFuture.supplyAsync(
+                    SqlStatistics.propagate(() -> carService.findAllByYear(range[0], range[1])), executor));
+        }
+        long[] last = merged.get(merged.size() - 1);
+        loads.add(CompletableFuture.completedFuture(carService.findAllByYear(last[0], last[1])));
+
+        Map<Long, List<Car>> byYear = new HashMap<>();
+        long firstYear = Long.MAX_VALUE;
+        long lastYear = Long.MIN_VALUE;
+        try {
+            for (CompletableFuture<List<Car>> load : loads) {
+                for (Car car : load.join()) {
+                    byYear.computeIfAbsent(car.getProductionYear(), year -> new ArrayList<>()).add(car);
+                    firstYear = Math.min(firstYear, car.getProductionYear());
+                    lastYear = Math.max(lastYear, car.getProductionYear());
+                }
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        List<List<Car>> results = new ArrayList<>(ranges.size());
+        for (YearRangeDto range : ranges) {
+            List<Car> matching = new ArrayList<>();
+            long to = Math.min(range.getMaxYear(), lastYear);
+            for (long year = Math.max(range.getMinYear(), firstYear); year <= to; year++) {
+                matching.addAll(byYear.getOrDefault(year, List.of()));
+            }
+            matching.sort(Comparator.comparingLong(Car::getCarId));
+            results.add(matching);
+        }
+        return results;
+    }
+
+    static List<long[]> merge(List<YearRangeDto> ranges) {
+        List<long[]> sorted = new ArrayList<>(ranges.size());
+        for (YearRangeDto range : ranges) {
+            sorted.add(new long[]{range.getMinYear(), range.getMaxYear()});
+        }
+        sorted.sort(Comparator.comparingLong(range -> range[0]));
+
+        List<long[]> merged = new ArrayList<>();
+        for (long[] range : sorted) {
+            long[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= previous[1] + 1) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
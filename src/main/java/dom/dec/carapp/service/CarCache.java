@@ -0,0 +1,71 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CarCache {
+    private Map<Long, Car> cars;
+    private AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public CarCache(@Value("${car.cache.max-size:10000}") int maxSize) {
+        this.cars = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Car> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Car get(long id) {
+        synchronized (cars) {
+            return cars.get(id);
+        }
+    }
+
+    /**
+     * Take before loading; {@link #put(Car, long)} drops the car if a write happened in between.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(Car car, long stamp) {
+        synchronized (cars) {
+            if (invalidations.get() == stamp) {
+                cars.put(car.getCarId(), car);
+            }
+        }
+    }
+
+    public void evict(long id) {
+        synchronized (cars) {
+            invalidations.incrementAndGet();
+            cars.remove(id);
+        }
+    }
+
+    public void clear() {
+        synchronized (cars) {
+            invalidations.incrementAndGet();
+            cars.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isBulk()) {
+            clear();
+        } else {
+            evict(event.getCarId());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dom.dec.carapp.service;
+
+public class CarChangedEvent {
+    private static final CarChangedEvent BULK = new CarChangedEvent(null, true);
+    private static final CarChangedEvent BULK_UPDATE = new CarChangedEvent(null, false);
+
+    private Long carId;
+    private boolean idsChanged;
+
+    private CarChangedEvent(Long carId, boolean idsChanged) {
+        this.carId = carId;
+        this.idsChanged = idsChanged;
+    }
+
+    public static CarChangedEvent of(long carId) {
+        return new CarChangedEvent(carId, false);
+    }
+
+    public static CarChangedEvent bulk() {
+        return BULK;
+    }
+
+    public static CarChangedEvent bulkUpdate() {
+        return BULK_UPDATE;
+    }
+
+    public boolean isBulk() {
+        return carId == null;
+    }
+
+    // only set on bulk events, publishers of single-car events update the id index themselves
+    public boolean isIdsChanged() {
+        return idsChanged;
+    }
+
+    public Long getCarId() {
+        return carId;
+    }
+}
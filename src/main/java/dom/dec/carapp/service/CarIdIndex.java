@@ -0,0 +1,202 @@
+package dom.dec.carapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap of existing car ids. A clear bit is a definite miss; a set bit only means the id may exist.
+ */
+@Component
+@Profile("!embedded")
+public class CarIdIndex {
+    private static final long MAX_TRACKED_ID = Integer.MAX_VALUE;
+    // archived cars keep their ids and must stay findable for updates and deletes
+    private static final String ALL_IDS = "(SELECT car_id FROM cars UNION ALL SELECT car_id FROM cars_archive) AS ids";
+
+    private JdbcTemplate jdbcTemplate;
+    private volatile boolean enabled;
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private AtomicLong idChanges = new AtomicLong();
+    // bulk id changes the current words reflect; until it catches up every id is treated as possible
+    private volatile long indexedIdChanges;
+    private volatile AtomicLongArray words = new AtomicLongArray(0);
+    private Queue<Long> addedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private ExecutorService rebuilder;
+
+    @Autowired
+    public CarIdIndex(JdbcTemplate jdbcTemplate, @Value("${car.id-filter.enabled:true}") boolean enabled) {
+        // a rebuild still waiting in the queue covers any later change too, so further requests are dropped
+        this(jdbcTemplate, enabled, new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "car-id-index");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy()));
+    }
+
+    CarIdIndex(JdbcTemplate jdbcTemplate, boolean enabled, ExecutorService rebuilder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.rebuilder = rebuilder;
+    }
+
+    public boolean mightContain(long id) {
+        if (!enabled || !ready || indexedIdChanges != idChanges.get() || id > MAX_TRACKED_ID) {
+            return true;
+        }
+        if (id < 0) {
+            return false;
+        }
+
+        AtomicLongArray current = words;
+        int word = (int) (id >>> 6);
+        return word < current.length() && (current.get(word) & (1L << id)) != 0;
+    }
+
+    public void add(long id) {
+        if (id < 0 || id > MAX_TRACKED_ID) {
+            return;
+        }
+
+        int word = (int) (id >>> 6);
+        while (true) {
+            swapLock.readLock().lock();
+            try {
+                AtomicLongArray current = words;
+                if (word < current.length()) {
+                    set(current, id);
+                    if (rebuilding) {
+                        addedDuringRebuild.add(id);
+                    }
+                    return;
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+
+            // growing copies the words, so it must not overlap with concurrent bit updates
+            swapLock.writeLock().lock();
+            try {
+                words = grow(words, id);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void remove(long id) {
+        if (id < 0) {
+            return;
+        }
+
+        swapLock.readLock().lock();
+        try {
+            AtomicLongArray current = words;
+            int word = (int) (id >>> 6);
+            if (word < current.length()) {
+                current.getAndUpdate(word, bits -> bits & ~(1L << id));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public synchronized void rebuild() {
+        long covered = idChanges.get();
+        rebuilding = true;
+        try {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(car_id), 0) FROM " + ALL_IDS, Long.class);
+            AtomicLongArray rebuilt = new AtomicLongArray(wordsFor(Math.min(maxId, MAX_TRACKED_ID)));
+            jdbcTemplate.query("SELECT car_id FROM " + ALL_IDS, resultSet -> {
+                long id = resultSet.getLong(1);
+                if (id <= MAX_TRACKED_ID) {
+                    set(rebuilt, id);
+                }
+            });
+
+            swapLock.writeLock().lock();
+            try {
+                AtomicLongArray merged = rebuilt;
+                for (Long id = addedDuringRebuild.poll(); id != null; id = addedDuringRebuild.poll()) {
+                    merged = grow(merged, id);
+                    set(merged, id);
+                }
+                words = merged;
+                indexedIdChanges = covered;
+                ready = true;
+            } finally {
+                rebuilding = false;
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.isIdsChanged()) {
+            idChanges.incrementAndGet();
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdown();
+    }
+
+    private static AtomicLongArray grow(AtomicLongArray current, long id) {
+        if ((id >>> 6) < current.length()) {
+            return current;
+        }
+
+        AtomicLongArray grown = new AtomicLongArray(Math.max(wordsFor(id), current.length() * 2));
+        for (int i = 0; i < current.length(); i++) {
+            grown.set(i, current.get(i));
+        }
+        return grown;
+    }
+
+    private static void set(AtomicLongArray target, long id) {
+        target.getAndUpdate((int) (id >>> 6), bits -> bits | (1L << id));
+    }
+
+    private static int wordsFor(long maxId) {
+        return (int) (maxId >>> 6) + 1;
+    }
+}
@@ -0,0 +1,11 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.ImportReportDto;
+
+import java.io.InputStream;
+
+
+public interface CarImportService {
+
+    ImportReportDto importCsv(InputStream csv);
+}
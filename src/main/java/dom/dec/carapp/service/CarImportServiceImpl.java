@@ -0,0 +1,217 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.ImportReportDto;
+import dom.dec.carapp.dto.RejectedRowDto;
+import dom.dec.carapp.validation.CarDtoValidator;
+import dom.dec.carapp.validation.ValidationMode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!embedded")
+public class CarImportServiceImpl implements CarImportService {
+    private static final int BATCH_SIZE = 5_000;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+    private static final int COLUMNS = 4;
+    // column names compared without spaces, quotes and underscores, so production_year and productionYear both match
+    private static final String HEADER = "brand,model,color,productionyear";
+
+    private static final String STAGE_ROW = "INSERT INTO cars_import (import_id, line_number, brand, model, color, production_year) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_ROWS = "INSERT INTO cars (brand, model, color, production_year) " +
+            "SELECT brand, model, color, production_year FROM cars_import WHERE import_id = ? ORDER BY line_number";
+    private static final String CLEAR_ROWS = "DELETE FROM cars_import WHERE import_id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Validator validator;
+    private ApplicationEventPublisher eventPublisher;
+    private ValidationMode validationMode;
+    private CarDtoValidator carDtoValidator = new CarDtoValidator();
+
+    @Autowired
+    public CarImportServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, Validator validator,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${car.validation.mode:compiled}") ValidationMode validationMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.validationMode = validationMode;
+    }
+
+    @Override
+    public ImportReportDto importCsv(InputStream csv) {
+        long start = System.nanoTime();
+        String importId = UUID.randomUUID().toString();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        List<RejectedRowDto> rejections = new ArrayList<>();
+        long rejected = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+
+                String error;
+                try {
+                    CarDto carDto = parse(line);
+                    error = validate(carDto);
+                    if (error == null) {
+                        batch.add(new Object[]{importId, lineNumber, carDto.getBrand(), carDto.getModel(),
+                                carDto.getColor().name(), carDto.getProductionYear()});
+                    }
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+
+                if (error != null) {
+                    rejected++;
+                    if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                        rejections.add(new RejectedRowDto(lineNumber, error));
+                    }
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    stage(batch);
+                }
+            }
+            stage(batch);
+
+            long imported = transactionTemplate.execute(status -> {
+                int merged = jdbcTemplate.update(MERGE_ROWS, importId);
+                jdbcTemplate.update(CLEAR_ROWS, importId);
+                return (long) merged;
+            });
+
+            if (imported > 0) {
+                eventPublisher.publishEvent(CarChangedEvent.bulk());
+            }
+
+            return new ImportReportDto(imported, rejected, (System.nanoTime() - start) / 1_000_000, rejections);
+        } catch (IOException e) {
+            jdbcTemplate.update(CLEAR_ROWS, importId);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(CLEAR_ROWS, importId);
+            throw e;
+        }
+    }
+
+    private void stage(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(STAGE_ROW, batch);
+            batch.clear();
+        }
+    }
+
+    private boolean isHeader(String line) {
+        return line.replace(" ", "").replace("\"", "").replace("_", "").equalsIgnoreCase(HEADER);
+    }
+
+    private String validate(CarDto carDto) {
+        if (validationMode == ValidationMode.COMPILED) {
+            if (carDtoValidator.check(carDto) == 0) {
+                return null;
+            }
+            return carDtoValidator.messages(carDto).stream()
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        Set<ConstraintViolation<CarDto>> violations = validator.validate(carDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private CarDto parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+
+        return new CarDto(fields.get(0), fields.get(1), parseColor(fields.get(2)), parseYear(fields.get(3)));
+    }
+
+    private Color parseColor(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Color.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Color must be one of " + Arrays.toString(Color.values()));
+        }
+    }
+
+    private long parseYear(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Production year must be a number");
+        }
+    }
+
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        return fields;
+    }
+}
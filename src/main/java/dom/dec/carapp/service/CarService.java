@@ -1,20 +1,39 @@
 package dom.dec.carapp.service;
 
 import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 
 public interface CarService {
 
     List<Car> findAll();
 
+    Car findById(long id);
+
+    CarBatchDto findAllByIds(List<Long> ids);
+
     Car saveCar(CarDto carDto);
 
     List<Car> findAllByYear(long from, long to);
 
+    OptionalLong findNextProductionYear(long after, long maxYear);
+
+    CarProjectionDto findAll(List<String> fields);
+
+    CarProjectionDto findAllByYear(long from, long to, List<String> fields);
+
     Car updateCar(CarDto newCar, long id);
 
     void deleteCar(long id);
+
+    long updateAllMatching(CarFilterDto filter, CarPatchDto patch, boolean dryRun);
+
+    long deleteAllMatching(CarFilterDto filter, boolean dryRun);
 }
@@ -1,33 +1,133 @@
 package dom.dec.carapp.service;
 
 import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
 import dom.dec.carapp.exception.ResourceNotFoundException;
 import dom.dec.carapp.repository.CarRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @Service
+@Profile("!embedded")
 public class CarServiceImpl implements CarService {
+    private static final int ID_CHUNK_SIZE = 1_000;
+
     private CarRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private CarIdIndex idIndex;
+    private CarCache carCache;
+    private CarArchive archive;
+    private CarWriteBatcher writeBatcher;
 
     @Autowired
-    public CarServiceImpl(CarRepository repository) {
+    public CarServiceImpl(CarRepository repository, ApplicationEventPublisher eventPublisher, CarIdIndex idIndex,
+                          CarCache carCache, CarArchive archive, CarWriteBatcher writeBatcher) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.idIndex = idIndex;
+        this.carCache = carCache;
+        this.archive = archive;
+        this.writeBatcher = writeBatcher;
     }
 
     @Override
     public List<Car> findAll() {
-        return repository.findAll();
+        return withArchived(repository.findAll(), archive.findAll());
+    }
+
+    @Override
+    public Car findById(long id) {
+        Car cached = carCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = carCache.stamp();
+        Car car = findExisting(id);
+        carCache.put(car, stamp);
+        return car;
+    }
+
+    @Override
+    public CarBatchDto findAllByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        Map<Long, Car> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+
+        for (long id : requested) {
+            Car cached = carCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else if (idIndex.mightContain(id)) {
+                toLoad.add(id);
+            }
+        }
+
+        long stamp = carCache.stamp();
+        for (int start = 0; start < toLoad.size(); start += ID_CHUNK_SIZE) {
+            List<Long> chunk = toLoad.subList(start, Math.min(toLoad.size(), start + ID_CHUNK_SIZE));
+            for (Car car : repository.findAllById(chunk)) {
+                found.put(car.getCarId(), car);
+                carCache.put(car, stamp);
+            }
+        }
+
+        if (archive.isEnabled() && found.size() < requested.size()) {
+            List<Long> notHot = new ArrayList<>();
+            for (long id : toLoad) {
+                if (!found.containsKey(id)) {
+                    notHot.add(id);
+                }
+            }
+            for (int start = 0; start < notHot.size(); start += ID_CHUNK_SIZE) {
+                List<Long> chunk = notHot.subList(start, Math.min(notHot.size(), start + ID_CHUNK_SIZE));
+                for (Car car : archive.findAllById(chunk)) {
+                    found.put(car.getCarId(), car);
+                    carCache.put(car, stamp);
+                }
+            }
+        }
+
+        List<Car> cars = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (long id : requested) {
+            Car car = found.get(id);
+            if (car != null) {
+                cars.add(car);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return new CarBatchDto(cars, missing);
     }
 
     @Override
     public Car saveCar(CarDto carDto) {
         Car car = new Car(carDto.getBrand(), carDto.getModel(), carDto.getColor(), carDto.getProductionYear());
-        return repository.save(car);
+        Car savedCar = batchWrites() ? writeBatcher.insert(carDto) : repository.save(car);
+        indexAdded(savedCar.getCarId());
+        eventPublisher.publishEvent(CarChangedEvent.of(savedCar.getCarId()));
+        return savedCar;
     }
 
     @Override
@@ -35,28 +135,162 @@ public class CarServiceImpl implements CarService {
         long min = Math.min(from, to);
         long max = Math.max(from, to);
 
-        return repository.findAll()
-                .stream()
-                .filter(item -> item.getProductionYear() >= min)
-                .filter(item -> item.getProductionYear() <= max)
-                .collect(Collectors.toList());
+        return withArchived(repository.findAllByProductionYearBetween(min, max), archive.findAllByYear(min, max));
     }
 
     @Override
-    public Car updateCar(CarDto newCar, long id) {
-        Car car = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Car", "id", id));
+    public OptionalLong findNextProductionYear(long after, long maxYear) {
+        Long hot = repository.findNextProductionYear(after, maxYear);
+        OptionalLong archived = archive.findNextProductionYear(after, maxYear);
+        if (hot == null) {
+            return archived;
+        }
+        return OptionalLong.of(archived.isPresent() ? Math.min(hot, archived.getAsLong()) : hot);
+    }
+
+    @Override
+    public CarProjectionDto findAll(List<String> fields) {
+        return new CarProjectionDto(fields, withArchived(repository.findAllFields(fields), archive.findAllFields(fields)));
+    }
 
-        car.setBrand(newCar.getBrand());
-        car.setModel(newCar.getModel());
-        car.setColor(newCar.getColor());
-        car.setProductionYear(newCar.getProductionYear());
+    @Override
+    public CarProjectionDto findAllByYear(long from, long to, List<String> fields) {
+        long min = Math.min(from, to);
+        long max = Math.max(from, to);
 
-        return repository.save(car);
+        return new CarProjectionDto(fields, withArchived(repository.findAllFieldsByProductionYearBetween(fields, min, max),
+                archive.findAllFieldsByYear(fields, min, max)));
+    }
+
+    @Override
+    public Car updateCar(CarDto newCar, long id) {
+        requireIndexed(id);
+        Optional<Car> hot = batchWrites() ? writeBatcher.update(id, newCar) : updateHot(newCar, id);
+        Car savedCar = hot.or(() -> archive.update(id, newCar))
+                .orElseThrow(() -> new ResourceNotFoundException("Car", "id", id));
+        eventPublisher.publishEvent(CarChangedEvent.of(id));
+        return savedCar;
     }
 
     @Override
     public void deleteCar(long id) {
-        Car car = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Car", "id", id));
-        repository.delete(car);
+        Optional<Car> hot = findHot(id);
+        if (hot.isPresent()) {
+            repository.delete(hot.get());
+        } else if (!archive.delete(id)) {
+            throw new ResourceNotFoundException("Car", "id", id);
+        }
+        indexRemoved(id);
+        eventPublisher.publishEvent(CarChangedEvent.of(id));
+    }
+
+    @Override
+    @Transactional
+    public long updateAllMatching(CarFilterDto filter, CarPatchDto patch, boolean dryRun) {
+        if (dryRun) {
+            return countMatching(filter);
+        }
+
+        long updated = repository.updateMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear(),
+                patch.getBrand(), patch.getModel(), patch.getColor(), patch.getProductionYear());
+        updated += archive.updateMatching(filter, patch);
+        publishBulkChange(updated, CarChangedEvent.bulkUpdate());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public long deleteAllMatching(CarFilterDto filter, boolean dryRun) {
+        if (dryRun) {
+            return countMatching(filter);
+        }
+
+        long deleted = repository.deleteMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear());
+        deleted += archive.deleteMatching(filter);
+        publishBulkChange(deleted, CarChangedEvent.bulk());
+        return deleted;
+    }
+
+    private Car findExisting(long id) {
+        return findHot(id)
+                .or(() -> archive.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Car", "id", id));
+    }
+
+    private Optional<Car> findHot(long id) {
+        requireIndexed(id);
+        return repository.findById(id);
+    }
+
+    private Optional<Car> updateHot(CarDto newCar, long id) {
+        return repository.findById(id).map(car -> {
+            car.setBrand(newCar.getBrand());
+            car.setModel(newCar.getModel());
+            car.setColor(newCar.getColor());
+            car.setProductionYear(newCar.getProductionYear());
+            return repository.save(car);
+        });
+    }
+
+    // batches commit in the writer's own transaction, so callers in a transaction write directly to keep their rollback
+    private boolean batchWrites() {
+        return writeBatcher.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    // the index is not transactional: undo adds of rolled back transactions, apply removals only after commit
+    private void indexAdded(long id) {
+        idIndex.add(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        idIndex.remove(id);
+                    }
+                }
+            });
+        }
+    }
+
+    private void indexRemoved(long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idIndex.remove(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idIndex.remove(id);
+            }
+        });
+    }
+
+    private void requireIndexed(long id) {
+        if (!idIndex.mightContain(id)) {
+            throw new ResourceNotFoundException("Car", "id", id);
+        }
+    }
+
+    private long countMatching(CarFilterDto filter) {
+        return repository.countMatching(filter.getBrand(), filter.getModel(), filter.getColor(),
+                filter.getMinYear(), filter.getMaxYear()) + archive.countMatching(filter);
+    }
+
+    private static <T> List<T> withArchived(List<T> hot, List<T> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<T> all = new ArrayList<>(hot.size() + archived.size());
+        all.addAll(hot);
+        all.addAll(archived);
+        return all;
+    }
+
+    private void publishBulkChange(long affected, CarChangedEvent event) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(event);
+        }
     }
 }
@@ -0,0 +1,71 @@
+package dom.dec.carapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Moves cars between tiers in small transactions, pausing between batches.
+ */
+@Component
+@Profile("!embedded")
+public class CarTieringJob {
+    private static final Logger log = LoggerFactory.getLogger(CarTieringJob.class);
+
+    private CarArchive archive;
+    private int batchSize;
+    private long batchPauseMillis;
+
+    @Autowired
+    public CarTieringJob(CarArchive archive,
+                         @Value("${car.tiering.batch-size:1000}") int batchSize,
+                         @Value("${car.tiering.batch-pause-ms:50}") long batchPauseMillis) {
+        this.archive = archive;
+        this.batchSize = batchSize;
+        this.batchPauseMillis = batchPauseMillis;
+    }
+
+    @Scheduled(initialDelayString = "${car.tiering.initial-delay-ms:60000}",
+            fixedDelayString = "${car.tiering.interval-ms:3600000}")
+    public void run() {
+        if (!archive.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long restored = drain(archive::restoreBatch);
+            if (restored > 0) {
+                log.info("Restored {} archived cars produced in or after {} in {} ms", restored,
+                        archive.getCutoffYear(), (System.nanoTime() - start) / 1_000_000);
+            }
+
+            start = System.nanoTime();
+            long moved = drain(archive::archiveBatch);
+            if (moved > 0) {
+                log.info("Archived {} cars produced before {} in {} ms", moved, archive.getCutoffYear(),
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long drain(IntUnaryOperator moveBatch) throws InterruptedException {
+        long moved = 0;
+        for (int batch = moveBatch.applyAsInt(batchSize); batch > 0; batch = moveBatch.applyAsInt(batchSize)) {
+            moved += batch;
+            if (batch < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPauseMillis);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,358 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.resilience.QueryTimeout;
+import dom.dec.carapp.tracing.Span;
+import dom.dec.carapp.tracing.Tracing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit for single-car writes. Updates to the same car within a batch collapse into the last one, but the
+ * version still advances once per update. A failed batch is retried one write per transaction, so only the caller
+ * at fault sees the error.
+ */
+@Component
+@Profile("!embedded")
+public class CarWriteBatcher {
+    private static final Logger log = LoggerFactory.getLogger(CarWriteBatcher.class);
+    private static final String INSERT_CAR = "INSERT INTO cars (brand, model, color, production_year, version) " +
+            "VALUES (?, ?, ?, ?, 0)";
+    private static final String UPDATE_CAR = "UPDATE cars SET brand = ?, model = ?, color = ?, production_year = ?, " +
+            "version = version + ? WHERE car_id = ?";
+    private static final String SELECT_VERSIONS = "SELECT car_id, version FROM cars WHERE car_id IN (%s)";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private boolean enabled;
+    private long windowNanos;
+    private int maxBatchSize;
+    private long timeoutMillis;
+    private int queryTimeoutSeconds;
+    private ArrayDeque<PendingWrite> queue = new ArrayDeque<>();
+    private AtomicLong batches = new AtomicLong();
+    private AtomicLong writes = new AtomicLong();
+    private Thread writer;
+    private boolean closed;
+
+    @Autowired
+    public CarWriteBatcher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           @Value("${car.write-batching.enabled:false}") boolean enabled,
+                           @Value("${car.write-batching.window-micros:200}") long windowMicros,
+                           @Value("${car.write-batching.max-batch-size:128}") int maxBatchSize,
+                           @Value("${car.write-batching.timeout-ms:5000}") long timeoutMillis,
+                           @Value("${car.resilience.query-timeout-seconds:2}") int queryTimeoutSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            writer = new Thread(this::writeLoop, "car-write-batcher");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public Car insert(CarDto carDto) {
+        return await(new PendingWrite(null, carDto), "CarWriteBatcher.insert");
+    }
+
+    // empty when the car is not in cars, leaving the archive to the caller
+    public Optional<Car> update(long id, CarDto carDto) {
+        return Optional.ofNullable(await(new PendingWrite(id, carDto), "CarWriteBatcher.update"));
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public double getWritesPerBatch() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) writes.get() / count;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        synchronized (queue) {
+            closed = true;
+            queue.notifyAll();
+        }
+        writer.join();
+    }
+
+    private Car await(PendingWrite write, String name) {
+        boolean interrupted = false;
+        try (Span span = Tracing.start(Tracing.REPOSITORY, name)) {
+            synchronized (queue) {
+                if (closed) {
+                    throw new IllegalStateException("Car write batcher is shut down");
+                }
+                queue.add(write);
+                if (queue.size() == 1) {
+                    queue.notifyAll();
+                } else if (queue.size() == maxBatchSize) {
+                    // cut the window short, a full batch is waiting
+                    LockSupport.unpark(writer);
+                }
+            }
+            try {
+                return write.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (dequeue(write)) {
+                    throw new QueryTimeoutException("Car write did not complete within " + timeoutMillis + " ms");
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                if (dequeue(write)) {
+                    throw new IllegalStateException("Interrupted while waiting for a car write", e);
+                }
+            }
+            // the writer took it already and may still commit it, so the caller must learn the outcome; the
+            // writer's statements run under the query timeout, so it is not far off
+            while (true) {
+                try {
+                    return write.result.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause
+                    : new IllegalStateException("Car write failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean dequeue(PendingWrite write) {
+        synchronized (queue) {
+            return queue.remove(write);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        int lastBatchSize = 0;
+        while (true) {
+            synchronized (queue) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        queue.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+            }
+            if (windowNanos > 0 && lastBatchSize > 1) {
+                awaitWindow();
+            }
+            synchronized (queue) {
+                while (!queue.isEmpty() && batch.size() < maxBatchSize) {
+                    batch.add(queue.poll());
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            try {
+                apply(batch);
+            } catch (Throwable e) {
+                log.error("Applying a batch of {} car writes failed", batch.size(), e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            }
+            lastBatchSize = batch.size();
+            batch.clear();
+        }
+    }
+
+    private void awaitWindow() {
+        long deadline = System.nanoTime() + windowNanos;
+        long remaining = windowNanos;
+        while (remaining > 0) {
+            synchronized (queue) {
+                if (queue.size() >= maxBatchSize || closed) {
+                    return;
+                }
+            }
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void apply(List<PendingWrite> batch) {
+        try {
+            QueryTimeout.call(queryTimeoutSeconds, () -> transactionTemplate.execute(status -> {
+                write(batch);
+                return null;
+            }));
+            batches.incrementAndGet();
+            writes.addAndGet(batch.size());
+            batch.forEach(write -> write.result.complete(write.written));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} car writes failed, retrying them one by one", batch.size(), e);
+            for (PendingWrite write : batch) {
+                if (!write.result.isDone()) {
+                    apply(List.of(write));
+                }
+            }
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<PendingWrite> inserts = new ArrayList<>();
+        Map<Long, List<PendingWrite>> updates = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            write.written = null;
+            if (write.id == null) {
+                inserts.add(write);
+            } else {
+                updates.computeIfAbsent(write.id, id -> new ArrayList<>(1)).add(write);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            insertAll(inserts);
+        }
+        if (!updates.isEmpty()) {
+            updateAll(updates);
+        }
+    }
+
+    private void insertAll(List<PendingWrite> inserts) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CAR, Statement.RETURN_GENERATED_KEYS)) {
+                for (PendingWrite insert : inserts) {
+                    bind(statement, insert.car);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (PendingWrite insert : inserts) {
+                        if (!keys.next()) {
+                            throw new SQLException("Expected " + inserts.size() + " generated car ids");
+                        }
+                        insert.written = toCar(insert.car, keys.getLong(1), 0);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private void updateAll(Map<Long, List<PendingWrite>> updates) {
+        List<Object[]> rows = new ArrayList<>(updates.size());
+        updates.forEach((id, writes) -> {
+            CarDto last = writes.get(writes.size() - 1).car;
+            rows.add(new Object[]{last.getBrand(), last.getModel(), colorName(last), last.getProductionYear(),
+                    writes.size(), id});
+        });
+        jdbcTemplate.batchUpdate(UPDATE_CAR, rows);
+
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query(String.format(SELECT_VERSIONS, String.join(", ", Collections.nCopies(updates.size(), "?"))),
+                (RowCallbackHandler) resultSet -> versions.put(resultSet.getLong(1), resultSet.getLong(2)),
+                updates.keySet().toArray());
+
+        updates.forEach((id, writes) -> {
+            Long version = versions.get(id);
+            if (version == null) {
+                return;
+            }
+            for (int i = 0; i < writes.size(); i++) {
+                PendingWrite update = writes.get(i);
+                update.written = toCar(update.car, id, version - (writes.size() - 1 - i));
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement statement, CarDto carDto) throws SQLException {
+        statement.setString(1, carDto.getBrand());
+        statement.setString(2, carDto.getModel());
+        statement.setString(3, colorName(carDto));
+        statement.setLong(4, carDto.getProductionYear());
+    }
+
+    private static String colorName(CarDto carDto) {
+        return carDto.getColor() == null ? null : carDto.getColor().name();
+    }
+
+    private static Car toCar(CarDto carDto, long id, long version) {
+        Car car = new Car(carDto.getBrand(), carDto.getModel(), carDto.getColor(), carDto.getProductionYear());
+        car.setCarId(id);
+        car.setVersion(version);
+        return car;
+    }
+
+    private static final class PendingWrite {
+        private final Long id;
+        private final CarDto car;
+        private final CompletableFuture<Car> result = new CompletableFuture<>();
+        private Car written;
+
+        private PendingWrite(Long id, CarDto car) {
+            this.id = id;
+            this.car = car;
+        }
+    }
+}
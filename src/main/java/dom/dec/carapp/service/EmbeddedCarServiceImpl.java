@@ -0,0 +1,211 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.CarBatchDto;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.exception.InvalidFieldException;
+import dom.dec.carapp.exception.ResourceNotFoundException;
+import dom.dec.carapp.storage.CarStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Service
+@Profile("embedded")
+public class EmbeddedCarServiceImpl implements CarService {
+    private static final Map<String, Function<Car, Object>> FIELDS = Map.of(
+            "carId", Car::getCarId,
+            "brand", Car::getBrand,
+            "model", Car::getModel,
+            "color", Car::getColor,
+            "productionYear", Car::getProductionYear);
+    private static final Set<String> FIELD_NAMES = new TreeSet<>(FIELDS.keySet());
+
+    private CarStore store;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public EmbeddedCarServiceImpl(CarStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<Car> findAll() {
+        return store.find(car -> true);
+    }
+
+    @Override
+    public Car findById(long id) {
+        Car car = store.get(id);
+        if (car == null) {
+            throw new ResourceNotFoundException("Car", "id", id);
+        }
+        return car;
+    }
+
+    @Override
+    public CarBatchDto findAllByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+
+        List<Car> cars = new ArrayList<>(requested.size());
+        List<Long> missing = new ArrayList<>();
+        for (long id : requested) {
+            Car car = store.get(id);
+            if (car != null) {
+                cars.add(car);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new CarBatchDto(cars, missing);
+    }
+
+    @Override
+    public Car saveCar(CarDto carDto) {
+        Car savedCar = store.insert(new Car(carDto.getBrand(), carDto.getModel(), carDto.getColor(),
+                carDto.getProductionYear()));
+        eventPublisher.publishEvent(CarChangedEvent.of(savedCar.getCarId()));
+        return savedCar;
+    }
+
+    @Override
+    public List<Car> findAllByYear(long from, long to) {
+        return store.find(inYears(from, to));
+    }
+
+    @Override
+    public OptionalLong findNextProductionYear(long after, long maxYear) {
+        return store.find(car -> car.getProductionYear() > after && car.getProductionYear() <= maxYear).stream()
+                .mapToLong(Car::getProductionYear)
+                .min();
+    }
+
+    @Override
+    public CarProjectionDto findAll(List<String> fields) {
+        return new CarProjectionDto(fields, project(fields, store.find(car -> true)));
+    }
+
+    @Override
+    public CarProjectionDto findAllByYear(long from, long to, List<String> fields) {
+        return new CarProjectionDto(fields, project(fields, store.find(inYears(from, to))));
+    }
+
+    @Override
+    public Car updateCar(CarDto newCar, long id) {
+        Car savedCar = store.update(id, car -> {
+            car.setBrand(newCar.getBrand());
+            car.setModel(newCar.getModel());
+            car.setColor(newCar.getColor());
+            car.setProductionYear(newCar.getProductionYear());
+        }).orElseThrow(() -> new ResourceNotFoundException("Car", "id", id));
+        eventPublisher.publishEvent(CarChangedEvent.of(id));
+        return savedCar;
+    }
+
+    @Override
+    public void deleteCar(long id) {
+        if (!store.delete(id)) {
+            throw new ResourceNotFoundException("Car", "id", id);
+        }
+        eventPublisher.publishEvent(CarChangedEvent.of(id));
+    }
+
+    @Override
+    public long updateAllMatching(CarFilterDto filter, CarPatchDto patch, boolean dryRun) {
+        if (dryRun) {
+            return countMatching(filter);
+        }
+
+        long updated = store.updateMatching(matching(filter), car -> {
+            if (patch.getBrand() != null) {
+                car.setBrand(patch.getBrand());
+            }
+            if (patch.getModel() != null) {
+                car.setModel(patch.getModel());
+            }
+            if (patch.getColor() != null) {
+                car.setColor(patch.getColor());
+            }
+            if (patch.getProductionYear() != null) {
+                car.setProductionYear(patch.getProductionYear());
+            }
+        });
+        publishBulkChange(updated, CarChangedEvent.bulkUpdate());
+        return updated;
+    }
+
+    @Override
+    public long deleteAllMatching(CarFilterDto filter, boolean dryRun) {
+        if (dryRun) {
+            return countMatching(filter);
+        }
+
+        long deleted = store.deleteMatching(matching(filter));
+        publishBulkChange(deleted, CarChangedEvent.bulk());
+        return deleted;
+    }
+
+    private long countMatching(CarFilterDto filter) {
+        return store.find(matching(filter)).size();
+    }
+
+    private static Predicate<Car> inYears(long from, long to) {
+        long min = Math.min(from, to);
+        long max = Math.max(from, to);
+        return car -> car.getProductionYear() >= min && car.getProductionYear() <= max;
+    }
+
+    private static Predicate<Car> matching(CarFilterDto filter) {
+        return car -> (filter.getBrand() == null || filter.getBrand().equals(car.getBrand()))
+                && (filter.getModel() == null || filter.getModel().equals(car.getModel()))
+                && (filter.getColor() == null || filter.getColor() == car.getColor())
+                && (filter.getMinYear() == null || car.getProductionYear() >= filter.getMinYear())
+                && (filter.getMaxYear() == null || car.getProductionYear() <= filter.getMaxYear());
+    }
+
+    private static List<Object[]> project(List<String> fields, List<Car> cars) {
+        if (fields.isEmpty()) {
+            throw new InvalidFieldException("", FIELD_NAMES);
+        }
+        List<Function<Car, Object>> getters = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Function<Car, Object> getter = FIELDS.get(field);
+            if (getter == null) {
+                throw new InvalidFieldException(field, FIELD_NAMES);
+            }
+            getters.add(getter);
+        }
+
+        List<Object[]> rows = new ArrayList<>(cars.size());
+        for (Car car : cars) {
+            Object[] row = new Object[getters.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = getters.get(i).apply(car);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void publishBulkChange(long affected, CarChangedEvent event) {
+        if (affected > 0) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
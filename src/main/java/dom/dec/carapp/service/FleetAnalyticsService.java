@@ -0,0 +1,19 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Color;
+
+import java.util.Map;
+
+
+public interface FleetAnalyticsService {
+
+    Map<Long, Long> yearHistogram(long from, long to);
+
+    Map<Color, Long> colorDistribution(long from, long to);
+
+    Map<String, Long> brandDistribution(long from, long to);
+
+    Map<String, Long> modelDistribution(long from, long to);
+
+    void refresh();
+}
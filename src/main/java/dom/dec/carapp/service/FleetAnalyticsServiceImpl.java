@@ -0,0 +1,173 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.analytics.FleetColumns;
+import dom.dec.carapp.domain.Color;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+@Service
+@Profile("!embedded")
+public class FleetAnalyticsServiceImpl implements FleetAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(FleetAnalyticsServiceImpl.class);
+    private static final int FETCH_SIZE = 10_000;
+
+    private JdbcTemplate jdbcTemplate;
+    private Path directory;
+    private AtomicLong generation = new AtomicLong();
+    private volatile FleetColumns columns = FleetColumns.empty();
+    private volatile boolean stale;
+
+    @Autowired
+    public FleetAnalyticsServiceImpl(JdbcTemplate jdbcTemplate,
+                                     @Value("${car.analytics.directory:${java.io.tmpdir}/carapp-analytics}") String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    public Map<Long, Long> yearHistogram(long from, long to) {
+        FleetColumns snapshot = acquire();
+        try {
+            long[] counts = snapshot.yearHistogram(toYear(from), toYear(to));
+            long first = Math.max(Math.min(from, to), snapshot.getMinYear());
+
+            Map<Long, Long> histogram = new TreeMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    histogram.put(first + i, counts[i]);
+                }
+            }
+            return histogram;
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    @Override
+    public Map<Color, Long> colorDistribution(long from, long to) {
+        FleetColumns snapshot = acquire();
+        try {
+            return toMap(snapshot.colorDistribution(toYear(from), toYear(to)), ordinal -> Color.values()[ordinal]);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    @Override
+    public Map<String, Long> brandDistribution(long from, long to) {
+        FleetColumns snapshot = acquire();
+        try {
+            return toMap(snapshot.brandDistribution(toYear(from), toYear(to)), snapshot::brand);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    @Override
+    public Map<String, Long> modelDistribution(long from, long to) {
+        FleetColumns snapshot = acquire();
+        try {
+            return toMap(snapshot.modelDistribution(toYear(from), toYear(to)), snapshot::model);
+        } finally {
+            snapshot.release();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${car.analytics.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            long start = System.nanoTime();
+            FleetColumns previous = columns;
+            columns = load();
+            previous.release();
+
+            log.debug("Refreshed fleet snapshot with {} cars in {} ms", columns.getRows(), (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.warn("Could not refresh fleet snapshot, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${car.analytics.stale-check-interval-ms:1000}")
+    public void refreshIfStale() {
+        if (stale) {
+            stale = false;
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        // single-car writes are picked up by the periodic refresh, set-based changes invalidate right away
+        if (event.isBulk()) {
+            stale = true;
+        }
+    }
+
+    // a snapshot released by a refresh between the read and the retain is gone, the next read sees its successor
+    private FleetColumns acquire() {
+        while (true) {
+            FleetColumns snapshot = columns;
+            if (snapshot.retain()) {
+                return snapshot;
+            }
+        }
+    }
+
+    private FleetColumns load() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int capacity = jdbcTemplate.queryForObject("SELECT (SELECT COUNT(*) FROM cars) + (SELECT COUNT(*) FROM cars_archive)", Integer.class);
+        Path file = directory.resolve("fleet-" + generation.incrementAndGet() + ".col");
+        FleetColumns.Writer writer = FleetColumns.writer(file, capacity);
+
+        // rows inserted after the count are picked up by the next refresh
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT production_year, color, brand, model FROM cars " +
+                    "UNION ALL SELECT production_year, color, brand, model FROM cars_archive");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            writer.append(resultSet.getInt(1), Color.valueOf(resultSet.getString(2)), resultSet.getString(3), resultSet.getString(4));
+        });
+
+        return writer.build();
+    }
+
+    private int toYear(long year) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, year));
+    }
+
+    private <K> Map<K, Long> toMap(long[] counts, IntFunction<K> key) {
+        Map<K, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(key.apply(i), counts[i]);
+            }
+        }
+        return result;
+    }
+}
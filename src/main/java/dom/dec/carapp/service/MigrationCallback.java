@@ -0,0 +1,41 @@
+package dom.dec.carapp.service;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migrations can rewrite the cars table behind the service layer, so each one is announced as a set-based change.
+ */
+@Component
+public class MigrationCallback implements Callback {
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public MigrationCallback(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.AFTER_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        eventPublisher.publishEvent(CarChangedEvent.bulk());
+    }
+
+    @Override
+    public String getCallbackName() {
+        return getClass().getSimpleName();
+    }
+}
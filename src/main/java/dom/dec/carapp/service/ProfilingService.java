@@ -0,0 +1,17 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.RecordingDto;
+
+import java.util.Optional;
+
+
+public interface ProfilingService {
+
+    RecordingDto start(String settings);
+
+    RecordingDto stop();
+
+    RecordingDto dump();
+
+    Optional<RecordingDto> findCurrent();
+}
@@ -0,0 +1,115 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.RecordingDto;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Single on-demand JFR recording with the app's own events always enabled.
+ */
+@Service
+public class ProfilingServiceImpl implements ProfilingService {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String[] APP_EVENTS = {"dom.dec.carapp.CarService", "dom.dec.carapp.ApiError"};
+
+    private Path recordingDirectory;
+    private Duration maxAge;
+    private Recording recording;
+
+    @Autowired
+    public ProfilingServiceImpl(@Value("${car.profiling.directory:./data/recordings}") String recordingDirectory,
+                                @Value("${car.profiling.max-age-minutes:30}") long maxAgeMinutes) {
+        this.recordingDirectory = Paths.get(recordingDirectory);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    @Override
+    public synchronized RecordingDto start(String settings) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Recording " + recording.getId() + " is already running");
+        }
+        closeRecording();
+
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+        recording.setName("car-app-" + settings);
+        recording.setMaxAge(maxAge);
+        recording.setToDisk(true);
+        for (String event : APP_EVENTS) {
+            recording.enable(event);
+        }
+        recording.start();
+        return toDto(recording);
+    }
+
+    @Override
+    public synchronized RecordingDto stop() {
+        Recording current = requireRecording();
+        if (current.getState() == RecordingState.RUNNING) {
+            current.stop();
+        }
+        return toDto(current);
+    }
+
+    @Override
+    public synchronized RecordingDto dump() {
+        Recording current = requireRecording();
+        Path target = recordingDirectory.resolve(current.getName() + "-" + FILE_TIMESTAMP.format(LocalDateTime.now())
+                + ".jfr").toAbsolutePath();
+
+        try {
+            Files.createDirectories(recordingDirectory);
+            current.dump(target);
+            RecordingDto dto = toDto(current);
+            dto.setDumpFile(target.toString());
+            dto.setDumpSizeBytes(Files.size(target));
+            return dto;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<RecordingDto> findCurrent() {
+        return Optional.ofNullable(recording).map(ProfilingServiceImpl::toDto);
+    }
+
+    @PreDestroy
+    public synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Recording requireRecording() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording has been started");
+        }
+        return recording;
+    }
+
+    private static RecordingDto toDto(Recording recording) {
+        return new RecordingDto(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), recording.getStopTime());
+    }
+}
@@ -0,0 +1,92 @@
+package dom.dec.carapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class SnapshotRestorer {
+    public static final String SNAPSHOT_EXTENSION = ".zip";
+    public static final String LATEST = "latest";
+
+    private static final String DATABASE_FILE_EXTENSION = ".mv.db";
+
+    private Path databaseDirectory;
+    private String databaseName;
+    private Path snapshotDirectory;
+
+    public SnapshotRestorer(Path databaseDirectory, String databaseName, Path snapshotDirectory) {
+        this.databaseDirectory = databaseDirectory;
+        this.databaseName = databaseName;
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    public static boolean isSnapshot(Path file) {
+        return Files.isRegularFile(file) && file.getFileName().toString().endsWith(SNAPSHOT_EXTENSION);
+    }
+
+    public Path getDatabaseFile() {
+        return databaseDirectory.resolve(databaseName + DATABASE_FILE_EXTENSION);
+    }
+
+    /**
+     * Unpacks the selected snapshot into the database directory when no database file exists yet.
+     * An existing database file always wins, so a warm restart simply reopens the MVStore.
+     *
+     * @param restoreFrom snapshot path, {@link #LATEST} or blank to skip
+     * @return the restored snapshot, empty when nothing was restored
+     */
+    public Optional<Path> restoreIfAbsent(String restoreFrom) {
+        if (Files.exists(getDatabaseFile()) || restoreFrom == null || restoreFrom.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<Path> snapshot = LATEST.equals(restoreFrom) ? findLatest() : Optional.of(Paths.get(restoreFrom));
+        snapshot.filter(Files::isRegularFile).ifPresent(this::restore);
+
+        return snapshot.filter(Files::isRegularFile);
+    }
+
+    public void restore(Path snapshot) {
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+            Files.createDirectories(databaseDirectory);
+
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !entry.getName().endsWith(DATABASE_FILE_EXTENSION)) {
+                    continue;
+                }
+                copy(zip, getDatabaseFile());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<Path> findLatest() {
+        if (!Files.isDirectory(snapshotDirectory)) {
+            return Optional.empty();
+        }
+
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            return files.filter(SnapshotRestorer::isSnapshot)
+                    .max(Comparator.comparing(file -> file.getFileName().toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void copy(InputStream source, Path target) throws IOException {
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,13 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.SnapshotDto;
+
+import java.util.List;
+
+
+public interface SnapshotService {
+
+    SnapshotDto createSnapshot();
+
+    List<SnapshotDto> findAll();
+}
@@ -0,0 +1,80 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.SnapshotDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Profile("durable")
+public class SnapshotServiceImpl implements SnapshotService {
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private JdbcTemplate jdbcTemplate;
+    private Path snapshotDirectory;
+
+    @Autowired
+    public SnapshotServiceImpl(JdbcTemplate jdbcTemplate,
+                               @Value("${car.storage.snapshot-directory}") String snapshotDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotDirectory = Paths.get(snapshotDirectory);
+    }
+
+    @Override
+    public SnapshotDto createSnapshot() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        Path target = snapshotDirectory.resolve("cars-" + FILE_TIMESTAMP.format(createdAt) + SnapshotRestorer.SNAPSHOT_EXTENSION)
+                .toAbsolutePath();
+
+        try {
+            Files.createDirectories(snapshotDirectory);
+            long start = System.nanoTime();
+            // BACKUP TO copies the MVStore pages while the database stays open for reads and writes
+            jdbcTemplate.execute("BACKUP TO '" + target.toString().replace("'", "''") + "'");
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+
+            return new SnapshotDto(target.getFileName().toString(), Files.size(target), createdAt, durationMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<SnapshotDto> findAll() {
+        if (!Files.isDirectory(snapshotDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            return files.filter(SnapshotRestorer::isSnapshot)
+                    .sorted()
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SnapshotDto toDto(Path file) {
+        try {
+            LocalDateTime modified = LocalDateTime.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault());
+            return new SnapshotDto(file.getFileName().toString(), Files.size(file), modified, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
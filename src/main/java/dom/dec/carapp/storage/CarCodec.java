@@ -0,0 +1,139 @@
+package dom.dec.carapp.storage;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A log frame is {@code [int payload length][int CRC32 of payload][payload]}; a torn frame is not applied at all.
+ */
+final class CarCodec {
+    static final int FRAME_HEADER_BYTES = 8;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte TRUNCATE = 3;
+
+    private CarCodec() {
+    }
+
+    sealed interface Mutation permits Put, Delete, Truncate {
+    }
+
+    record Put(Car car) implements Mutation {
+    }
+
+    record Delete(long carId) implements Mutation {
+    }
+
+    record Truncate() implements Mutation {
+    }
+
+    static ByteBuffer frame(List<? extends Mutation> mutations) {
+        List<EncodedCar> encoded = new ArrayList<>(mutations.size());
+        int payload = 0;
+        for (Mutation mutation : mutations) {
+            if (mutation instanceof Put put) {
+                EncodedCar car = EncodedCar.of(put.car());
+                encoded.add(car);
+                payload += 1 + car.size();
+            } else if (mutation instanceof Delete) {
+                payload += 1 + Long.BYTES;
+            } else {
+                payload += 1;
+            }
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload);
+        frame.position(FRAME_HEADER_BYTES);
+        int next = 0;
+        for (Mutation mutation : mutations) {
+            if (mutation instanceof Put) {
+                frame.put(PUT);
+                encoded.get(next++).writeTo(frame);
+            } else if (mutation instanceof Delete delete) {
+                frame.put(DELETE).putLong(delete.carId());
+            } else {
+                frame.put(TRUNCATE);
+            }
+        }
+
+        frame.putInt(0, payload).putInt(4, crc(frame, FRAME_HEADER_BYTES, payload));
+        return frame.flip().position(0);
+    }
+
+    // leaves the position unchanged and returns null when the rest of the buffer is not a complete, intact frame
+    static List<Mutation> readFrame(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int payload = buffer.getInt(start);
+        int checksum = buffer.getInt(start + 4);
+        if (payload <= 0 || payload > buffer.remaining() - FRAME_HEADER_BYTES
+                || crc(buffer, start + FRAME_HEADER_BYTES, payload) != checksum) {
+            return null;
+        }
+
+        buffer.position(start + FRAME_HEADER_BYTES);
+        int end = start + FRAME_HEADER_BYTES + payload;
+        List<Mutation> mutations = new ArrayList<>();
+        while (buffer.position() < end) {
+            byte operation = buffer.get();
+            switch (operation) {
+                case PUT -> mutations.add(new Put(readCar(buffer)));
+                case DELETE -> mutations.add(new Delete(buffer.getLong()));
+                case TRUNCATE -> mutations.add(new Truncate());
+                default -> throw new IllegalStateException("Unknown log operation " + operation + " at " + start);
+            }
+        }
+        return mutations;
+    }
+
+    static Car readCar(ByteBuffer buffer) {
+        Car car = new Car();
+        car.setCarId(buffer.getLong());
+        car.setVersion(buffer.getLong());
+        car.setProductionYear(buffer.getLong());
+        car.setColor(Color.valueOf(readString(buffer)));
+        car.setBrand(readString(buffer));
+        car.setModel(readString(buffer));
+        return car;
+    }
+
+    static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(offset + length).position(offset));
+        return (int) crc.getValue();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    record EncodedCar(Car car, byte[] color, byte[] brand, byte[] model) {
+
+        static EncodedCar of(Car car) {
+            return new EncodedCar(car, car.getColor().name().getBytes(StandardCharsets.UTF_8),
+                    car.getBrand().getBytes(StandardCharsets.UTF_8), car.getModel().getBytes(StandardCharsets.UTF_8));
+        }
+
+        int size() {
+            return 3 * Long.BYTES + 3 * Integer.BYTES + color.length + brand.length + model.length;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.putLong(car.getCarId()).putLong(car.getVersion()).putLong(car.getProductionYear());
+            buffer.putInt(color.length).put(color);
+            buffer.putInt(brand.length).put(brand);
+            buffer.putInt(model.length).put(model);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package dom.dec.carapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log with group commit. Once a write or sync fails the log refuses further frames.
+ */
+final class CarLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(CarLog.class);
+    private static final int MAX_FRAMES_PER_WRITE = 1024;
+
+    private final Path path;
+    private final long sequence;
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final long windowNanos;
+    private final GroupCommitStatistics statistics;
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final AtomicLong appendedBytes = new AtomicLong();
+    private final Thread writer;
+    private boolean closed;
+    private IOException failure;
+
+    private CarLog(Path path, long sequence, FileChannel channel, boolean fsync, long windowNanos,
+                   GroupCommitStatistics statistics) {
+        this.path = path;
+        this.sequence = sequence;
+        this.channel = channel;
+        this.fsync = fsync;
+        this.windowNanos = windowNanos;
+        this.statistics = statistics;
+        this.writer = new Thread(this::writeLoop, "car-log-writer-" + sequence);
+        this.writer.setDaemon(true);
+    }
+
+    static CarLog create(Path path, long sequence, boolean fsync, long windowNanos, GroupCommitStatistics statistics)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        CarLog carLog = new CarLog(path, sequence, channel, fsync, windowNanos, statistics);
+        carLog.writer.start();
+        return carLog;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long appendedBytes() {
+        return appendedBytes.get();
+    }
+
+    // a failed log fails the future before returning it, so callers can check it before applying the change
+    CompletableFuture<Void> append(ByteBuffer frame) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (queue) {
+            if (failure != null) {
+                durable.completeExceptionally(new UncheckedIOException("Car log " + path + " has failed", failure));
+                return durable;
+            }
+            if (closed) {
+                throw new IllegalStateException("Car log " + path + " is closed");
+            }
+            queue.add(new Pending(frame, durable));
+            appendedBytes.addAndGet(frame.remaining());
+            queue.notifyAll();
+        }
+        return durable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            closed = true;
+            queue.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (queue) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            synchronized (queue) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        queue.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+            }
+            if (windowNanos > 0) {
+                // give writers that arrive right behind the first one a chance to share its sync
+                LockSupport.parkNanos(windowNanos);
+            }
+            synchronized (queue) {
+                while (!queue.isEmpty() && batch.size() < MAX_FRAMES_PER_WRITE) {
+                    batch.add(queue.poll());
+                }
+            }
+
+            try {
+                write(batch);
+                batch.forEach(pending -> pending.durable().complete(null));
+            } catch (IOException e) {
+                log.error("Writing to car log {} failed, refusing further writes", path, e);
+                List<Pending> failed = new ArrayList<>(batch);
+                synchronized (queue) {
+                    failure = e;
+                    failed.addAll(queue);
+                    queue.clear();
+                }
+                UncheckedIOException error = new UncheckedIOException("Car log " + path + " has failed", e);
+                failed.forEach(pending -> pending.durable().completeExceptionally(error));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) throws IOException {
+        ByteBuffer[] frames = new ByteBuffer[batch.size()];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = batch.get(i).frame();
+        }
+        while (frames[frames.length - 1].hasRemaining()) {
+            channel.write(frames);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        statistics.record(batch.size());
+    }
+
+    private record Pending(ByteBuffer frame, CompletableFuture<Void> durable) {
+    }
+}
@@ -0,0 +1,82 @@
+package dom.dec.carapp.storage;
+
+import dom.dec.carapp.domain.Car;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compacted image of the store: every live car plus the next id to hand out, covering all log files up to and
+ * including {@link #sequence()}. Written through a memory mapping into a temporary file that is forced and then
+ * renamed over the final name, so a snapshot file is either complete or absent; read back through a read-only mapping.
+ * <p>
+ * Layout: magic, format version, covered log sequence, next id, car count, the cars as in {@link CarCodec}, and a
+ * trailing CRC32 over everything before it.
+ */
+record CarSnapshot(long sequence, long nextId, List<Car> cars) {
+    private static final int MAGIC = 0x43415253;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    static void write(Path path, long sequence, long nextId, List<Car> cars) throws IOException {
+        List<CarCodec.EncodedCar> encoded = new ArrayList<>(cars.size());
+        long size = HEADER_BYTES + Integer.BYTES;
+        for (Car car : cars) {
+            CarCodec.EncodedCar encodedCar = CarCodec.EncodedCar.of(car);
+            encoded.add(encodedCar);
+            size += encodedCar.size();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + cars.size() + " cars exceeds the 2 GB mapping limit");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(sequence).putLong(nextId).putInt(cars.size());
+            for (CarCodec.EncodedCar car : encoded) {
+                car.writeTo(buffer);
+            }
+            buffer.putInt(CarCodec.crc(buffer, 0, buffer.position()));
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Throws {@link IOException} when the file is truncated, corrupt or of an unknown format.
+     */
+    static CarSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + Integer.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " has an invalid size of " + size + " bytes");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int checksumAt = (int) size - Integer.BYTES;
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getInt(checksumAt) != CarCodec.crc(buffer, 0, checksumAt)) {
+                throw new IOException("Snapshot " + path + " is corrupt or of an unknown format");
+            }
+
+            buffer.position(2 * Integer.BYTES);
+            long sequence = buffer.getLong();
+            long nextId = buffer.getLong();
+            int count = buffer.getInt();
+            List<Car> cars = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                cars.add(CarCodec.readCar(buffer));
+            }
+            return new CarSnapshot(sequence, nextId, cars);
+        }
+    }
+}
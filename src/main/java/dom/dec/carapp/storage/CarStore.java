@@ -0,0 +1,454 @@
+package dom.dec.carapp.storage;
+
+import dom.dec.carapp.domain.Car;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cars handed out are shared and never modified by the store, so callers must not modify them either. Single-car
+ * changes are serialized per id; bulk changes and log rotation hold off all other writers. Reads take no locks.
+ */
+public class CarStore implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(CarStore.class);
+    private static final String LOG_PREFIX = "log-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SUFFIX = ".dat";
+    private static final int STRIPES = 64;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long groupCommitWindowNanos;
+    private final ConcurrentLongMap<Car> cars = new ConcurrentLongMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ReentrantReadWriteLock writers = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[STRIPES];
+    private final Object compaction = new Object();
+    private final GroupCommitStatistics statistics = new GroupCommitStatistics();
+    private volatile CarLog current;
+    private volatile long recoveredLogBytes;
+    private volatile Throwable failure;
+    private boolean created;
+
+    private CarStore(Path directory, boolean fsync, long groupCommitWindowNanos) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * @param fsync without it a crash of the machine can lose recently acknowledged changes
+     */
+    public static CarStore open(Path directory, boolean fsync, long groupCommitWindowNanos) throws IOException {
+        CarStore store = new CarStore(directory, fsync, groupCommitWindowNanos);
+        store.recover();
+        return store;
+    }
+
+    public boolean isNew() {
+        return created;
+    }
+
+    public Car get(long id) {
+        return cars.get(id);
+    }
+
+    public int size() {
+        return cars.size();
+    }
+
+    public List<Car> find(Predicate<Car> filter) {
+        List<Car> found = new ArrayList<>();
+        for (Car car : cars.values()) {
+            if (filter.test(car)) {
+                found.add(car);
+            }
+        }
+        found.sort(Comparator.comparingLong(Car::getCarId));
+        return found;
+    }
+
+    public GroupCommitStatistics getStatistics() {
+        return statistics;
+    }
+
+    public List<Car> insertAll(List<Car> newCars) {
+        List<Car> inserted = new ArrayList<>(newCars.size());
+        List<CarCodec.Mutation> mutations = new ArrayList<>(newCars.size());
+        CompletableFuture<Void> durable;
+        writers.readLock().lock();
+        try {
+            checkWritable();
+            for (Car newCar : newCars) {
+                Car car = copyOf(newCar, nextId.getAndIncrement(), 0);
+                inserted.add(car);
+                mutations.add(new CarCodec.Put(car));
+            }
+            durable = append(mutations);
+            for (Car car : inserted) {
+                cars.put(car.getCarId(), car);
+            }
+        } finally {
+            writers.readLock().unlock();
+        }
+        await(durable);
+        return inserted;
+    }
+
+    public Car insert(Car newCar) {
+        return insertAll(List.of(newCar)).get(0);
+    }
+
+    public Optional<Car> update(long id, Consumer<Car> change) {
+        Car updated;
+        CompletableFuture<Void> durable;
+        writers.readLock().lock();
+        try {
+            checkWritable();
+            synchronized (stripe(id)) {
+                Car car = cars.get(id);
+                if (car == null) {
+                    return Optional.empty();
+                }
+                updated = copyOf(car, id, car.getVersion() + 1);
+                change.accept(updated);
+                durable = append(List.of(new CarCodec.Put(updated)));
+                cars.put(id, updated);
+            }
+        } finally {
+            writers.readLock().unlock();
+        }
+        await(durable);
+        return Optional.of(updated);
+    }
+
+    public boolean delete(long id) {
+        CompletableFuture<Void> durable;
+        writers.readLock().lock();
+        try {
+            checkWritable();
+            synchronized (stripe(id)) {
+                if (cars.get(id) == null) {
+                    return false;
+                }
+                durable = append(List.of(new CarCodec.Delete(id)));
+                cars.remove(id);
+            }
+        } finally {
+            writers.readLock().unlock();
+        }
+        await(durable);
+        return true;
+    }
+
+    public long updateMatching(Predicate<Car> filter, Consumer<Car> change) {
+        List<CarCodec.Mutation> mutations = new ArrayList<>();
+        CompletableFuture<Void> durable;
+        writers.writeLock().lock();
+        try {
+            checkWritable();
+            for (Car car : cars.values()) {
+                if (filter.test(car)) {
+                    Car updated = copyOf(car, car.getCarId(), car.getVersion() + 1);
+                    change.accept(updated);
+                    mutations.add(new CarCodec.Put(updated));
+                }
+            }
+            if (mutations.isEmpty()) {
+                return 0;
+            }
+            durable = append(mutations);
+            for (CarCodec.Mutation mutation : mutations) {
+                Car updated = ((CarCodec.Put) mutation).car();
+                cars.put(updated.getCarId(), updated);
+            }
+        } finally {
+            writers.writeLock().unlock();
+        }
+        await(durable);
+        return mutations.size();
+    }
+
+    public long deleteMatching(Predicate<Car> filter) {
+        List<CarCodec.Mutation> mutations = new ArrayList<>();
+        CompletableFuture<Void> durable;
+        writers.writeLock().lock();
+        try {
+            checkWritable();
+            for (Car car : cars.values()) {
+                if (filter.test(car)) {
+                    mutations.add(new CarCodec.Delete(car.getCarId()));
+                }
+            }
+            if (mutations.isEmpty()) {
+                return 0;
+            }
+            durable = append(mutations);
+            for (CarCodec.Mutation mutation : mutations) {
+                cars.remove(((CarCodec.Delete) mutation).carId());
+            }
+        } finally {
+            writers.writeLock().unlock();
+        }
+        await(durable);
+        return mutations.size();
+    }
+
+    public void truncate() {
+        CompletableFuture<Void> durable;
+        writers.writeLock().lock();
+        try {
+            checkWritable();
+            durable = append(List.of(new CarCodec.Truncate()));
+            cars.clear();
+            nextId.set(1);
+        } finally {
+            writers.writeLock().unlock();
+        }
+        await(durable);
+    }
+
+    public long getUncompactedLogBytes() {
+        return recoveredLogBytes + current.appendedBytes();
+    }
+
+    public boolean compactIfLargerThan(long minLogBytes) throws IOException {
+        if (getUncompactedLogBytes() < minLogBytes) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    // writers are held off only for the log switch, not while the snapshot is written
+    public void compact() throws IOException {
+        synchronized (compaction) {
+            CarLog previous;
+            List<Car> state;
+            long next;
+            writers.writeLock().lock();
+            try {
+                checkWritable();
+                previous = current;
+                state = cars.values();
+                next = nextId.get();
+                current = createLog(previous.sequence() + 1);
+            } finally {
+                writers.writeLock().unlock();
+            }
+
+            try {
+                // drains the frames of everything captured in the state before the snapshot claims to cover them
+                previous.close();
+                state.sort(Comparator.comparingLong(Car::getCarId));
+                CarSnapshot.write(directory.resolve(fileName(SNAPSHOT_PREFIX, previous.sequence())),
+                        previous.sequence(), next, state);
+                syncDirectory();
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+            recoveredLogBytes = 0;
+
+            for (long sequence : sequences(LOG_PREFIX).keySet()) {
+                if (sequence <= previous.sequence()) {
+                    Files.deleteIfExists(directory.resolve(fileName(LOG_PREFIX, sequence)));
+                }
+            }
+            for (long sequence : sequences(SNAPSHOT_PREFIX).keySet()) {
+                if (sequence < previous.sequence()) {
+                    Files.deleteIfExists(directory.resolve(fileName(SNAPSHOT_PREFIX, sequence)));
+                }
+            }
+            log.info("Compacted car store {}: {} cars in snapshot {}", directory, state.size(), previous.sequence());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (compaction) {
+            writers.writeLock().lock();
+            try {
+                current.close();
+            } finally {
+                writers.writeLock().unlock();
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> snapshots = sequences(SNAPSHOT_PREFIX);
+        TreeMap<Long, Path> logs = sequences(LOG_PREFIX);
+        // leftovers of a snapshot write that was interrupted before its rename
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path temporary : files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+        created = snapshots.isEmpty() && logs.isEmpty();
+
+        long covered = 0;
+        for (Path path : snapshots.descendingMap().values()) {
+            try {
+                CarSnapshot snapshot = CarSnapshot.read(path);
+                for (Car car : snapshot.cars()) {
+                    cars.put(car.getCarId(), car);
+                }
+                nextId.set(snapshot.nextId());
+                covered = snapshot.sequence();
+                break;
+            } catch (IOException e) {
+                log.warn("Skipping unreadable car snapshot {}", path, e);
+            }
+        }
+
+        long replayedFrames = 0;
+        for (Path path : logs.tailMap(covered, false).values()) {
+            replayedFrames += replay(path);
+        }
+
+        long lastSequence = Math.max(covered, logs.isEmpty() ? 0 : logs.lastKey());
+        current = createLog(lastSequence + 1);
+        syncDirectory();
+        log.info("Opened car store {} with {} cars from snapshot {} and {} replayed log frames",
+                directory, cars.size(), covered, replayedFrames);
+    }
+
+    private long replay(Path path) throws IOException {
+        long frames = 0;
+        long valid;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Car log " + path + " exceeds the 2 GB mapping limit");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (List<CarCodec.Mutation> frame = CarCodec.readFrame(buffer); frame != null;
+                 frame = CarCodec.readFrame(buffer)) {
+                frame.forEach(this::apply);
+                frames++;
+            }
+            valid = buffer.position();
+            if (valid < size) {
+                log.warn("Dropping {} bytes of torn or corrupt tail from car log {}", size - valid, path);
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        recoveredLogBytes += valid;
+        return frames;
+    }
+
+    private void apply(CarCodec.Mutation mutation) {
+        if (mutation instanceof CarCodec.Put put) {
+            cars.put(put.car().getCarId(), put.car());
+            nextId.accumulateAndGet(put.car().getCarId() + 1, Math::max);
+        } else if (mutation instanceof CarCodec.Delete delete) {
+            cars.remove(delete.carId());
+        } else {
+            cars.clear();
+            nextId.set(1);
+        }
+    }
+
+    private CompletableFuture<Void> append(List<CarCodec.Mutation> mutations) {
+        CompletableFuture<Void> durable = current.append(CarCodec.frame(mutations));
+        if (durable.isCompletedExceptionally()) {
+            // nothing has been applied yet, so the caller sees the failure and the state stays as it was
+            await(durable);
+        }
+        return durable;
+    }
+
+    private void await(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            failure = e.getCause();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void checkWritable() {
+        Throwable failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("Car store " + directory + " is read-only after a storage failure", failed);
+        }
+    }
+
+    private Object stripe(long id) {
+        return stripes[(int) (id & (STRIPES - 1))];
+    }
+
+    private CarLog createLog(long sequence) throws IOException {
+        return CarLog.create(directory.resolve(fileName(LOG_PREFIX, sequence)), sequence, fsync,
+                groupCommitWindowNanos, statistics);
+    }
+
+    private TreeMap<Long, Path> sequences(String prefix) throws IOException {
+        TreeMap<Long, Path> sequences = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(SUFFIX)) {
+                    try {
+                        sequences.put(Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length())), file);
+                    } catch (NumberFormatException e) {
+                        log.warn("Ignoring unexpected file {} in car store", file);
+                    }
+                }
+            });
+        }
+        return sequences;
+    }
+
+    // not supported on every platform
+    private void syncDirectory() {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UncheckedIOException e) {
+            log.debug("Cannot sync directory {}", directory, e);
+        }
+    }
+
+    private static String fileName(String prefix, long sequence) {
+        return String.format("%s%016d%s", prefix, sequence, SUFFIX);
+    }
+
+    private static Car copyOf(Car car, long id, long version) {
+        Car copy = new Car(car.getBrand(), car.getModel(), car.getColor(), car.getProductionYear());
+        copy.setCarId(id);
+        copy.setVersion(version);
+        return copy;
+    }
+}
@@ -0,0 +1,40 @@
+package dom.dec.carapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@Profile("embedded")
+public class CarStoreCompactionJob {
+    private static final Logger log = LoggerFactory.getLogger(CarStoreCompactionJob.class);
+
+    private CarStore store;
+    private long minLogBytes;
+
+    @Autowired
+    public CarStoreCompactionJob(CarStore store,
+                                 @Value("${car.embedded.compaction-min-log-bytes:8388608}") long minLogBytes) {
+        this.store = store;
+        this.minLogBytes = minLogBytes;
+    }
+
+    @Scheduled(initialDelayString = "${car.embedded.compaction-interval-ms:60000}",
+            fixedDelayString = "${car.embedded.compaction-interval-ms:60000}")
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            if (store.compactIfLargerThan(minLogBytes)) {
+                log.info("Compacted car store in {} ms", (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Car store compaction failed", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dom.dec.carapp.storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class GroupCommitStatistics {
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+
+    void record(int framesInCommit) {
+        commits.increment();
+        frames.add(framesInCommit);
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    public double getFramesPerCommit() {
+        long commitCount = commits.sum();
+        return commitCount == 0 ? 0 : (double) frames.sum() / commitCount;
+    }
+}
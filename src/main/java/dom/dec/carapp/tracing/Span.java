@@ -0,0 +1,105 @@
+package dom.dec.carapp.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Closed in the thread that started it. Outside a sampled request {@link Tracing#start(String, String)} hands out a
+ * shared no-op span.
+ */
+public final class Span implements AutoCloseable {
+    static final Span NOOP = new Span(null, null, null, null, null, 0);
+
+    private final Trace trace;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String stage;
+    private final long startNanos;
+    private String name;
+    private long endNanos = -1;
+    private Map<String, String> attributes;
+    private String error;
+
+    Span(Trace trace, String spanId, String parentSpanId, String stage, String name, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.stage = stage;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    public boolean isRecording() {
+        return trace != null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (trace != null && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value.toString());
+        }
+        return this;
+    }
+
+    public Span setName(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+        return this;
+    }
+
+    public void recordError(Throwable e) {
+        if (trace != null) {
+            error = e.getClass().getSimpleName();
+        }
+    }
+
+    public void end() {
+        if (trace == null || endNanos >= 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        trace.ended(this);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    // a span still open when its trace ended counts up to the end of the trace
+    public long getDurationNanos() {
+        long end = endNanos >= 0 ? endNanos : trace.getEndNanos();
+        return Math.max(0, end - startNanos);
+    }
+
+    public Map<String, String> getAttributes() {
+        return attributes == null ? Map.of() : attributes;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,104 @@
+package dom.dec.carapp.tracing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Confined to the request thread while recorded and not modified once {@link Tracing#end()} has returned it.
+ */
+public final class Trace {
+    static final int MAX_SPANS = 512;
+
+    private final String traceId;
+    private final Instant startedAt = Instant.now();
+    private final Span root;
+    private final List<Span> spans = new ArrayList<>();
+    private final Deque<Span> open = new ArrayDeque<>();
+    private long endNanos = -1;
+    private int droppedSpans;
+
+    Trace(String traceId, String parentSpanId, String name) {
+        this.traceId = traceId;
+        this.root = new Span(this, Tracing.randomId(8), parentSpanId, Tracing.HTTP, name, System.nanoTime());
+        spans.add(root);
+        open.push(root);
+    }
+
+    Span startSpan(String stage, String name) {
+        if (endNanos >= 0) {
+            return Span.NOOP;
+        }
+        if (spans.size() >= MAX_SPANS) {
+            droppedSpans++;
+            return Span.NOOP;
+        }
+        Span parent = open.isEmpty() ? root : open.peek();
+        Span span = new Span(this, Tracing.randomId(8), parent.getSpanId(), stage, name, System.nanoTime());
+        spans.add(span);
+        open.push(span);
+        return span;
+    }
+
+    void ended(Span span) {
+        if (open.peek() == span) {
+            open.pop();
+        } else {
+            open.removeFirstOccurrence(span);
+        }
+        if (span == root) {
+            endNanos = System.nanoTime();
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    long getEndNanos() {
+        return endNanos >= 0 ? endNanos : System.nanoTime();
+    }
+
+    public long getDurationNanos() {
+        return root.getDurationNanos();
+    }
+
+    // self times exclude child spans, so they add up to the duration of the trace
+    public Map<String, Long> getSelfNanosByStage() {
+        Map<String, Long> childNanos = new HashMap<>();
+        for (Span span : spans) {
+            if (span != root) {
+                childNanos.merge(span.getParentSpanId(), span.getDurationNanos(), Long::sum);
+            }
+        }
+
+        Map<String, Long> byStage = new LinkedHashMap<>();
+        for (Span span : spans) {
+            long self = Math.max(0, span.getDurationNanos() - childNanos.getOrDefault(span.getSpanId(), 0L));
+            byStage.merge(span.getStage(), self, Long::sum);
+        }
+        return byStage;
+    }
+}
@@ -0,0 +1,116 @@
+package dom.dec.carapp.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A caller that sampled is traced beyond the local sample rate only up to {@code car.tracing.max-forced-per-second}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "car.tracing.enabled", havingValue = "true")
+public class TraceFilter extends OncePerRequestFilter {
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Pattern TRACEPARENT_FORMAT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String ADMIN_PATH = "/admin/traces";
+
+    private TraceRecorder recorder;
+    private double sampleRate;
+    private int maxForcedPerSecond;
+    private LongSupplier nanoClock;
+    private AtomicLong forcedSecond = new AtomicLong();
+    private AtomicInteger forcedInSecond = new AtomicInteger();
+
+    @Autowired
+    public TraceFilter(TraceRecorder recorder, @Value("${car.tracing.sample-rate:0.1}") double sampleRate,
+                       @Value("${car.tracing.max-forced-per-second:10}") int maxForcedPerSecond) {
+        this(recorder, sampleRate, maxForcedPerSecond, System::nanoTime);
+    }
+
+    TraceFilter(TraceRecorder recorder, double sampleRate, int maxForcedPerSecond, LongSupplier nanoClock) {
+        this.recorder = recorder;
+        this.sampleRate = sampleRate;
+        this.maxForcedPerSecond = maxForcedPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(ADMIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = null;
+        String parentSpanId = null;
+        boolean sampled;
+        Matcher parent = TRACEPARENT_FORMAT.matcher(String.valueOf(request.getHeader(TRACEPARENT)));
+        if (parent.matches()) {
+            traceId = parent.group(1);
+            parentSpanId = parent.group(2);
+            sampled = (Integer.parseInt(parent.group(3), 16) & 1) != 0 && (sampleLocally() || tryForce());
+        } else {
+            sampled = sampleLocally();
+        }
+
+        if (!sampled) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Trace trace = Tracing.begin(traceId, parentSpanId, request.getMethod() + " " + request.getRequestURI());
+        Span root = trace.getRoot();
+        response.setHeader(TRACEPARENT, "00-" + trace.getTraceId() + "-" + root.getSpanId() + "-01");
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.recordError(e);
+            throw e;
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                root.setName(request.getMethod() + " " + route);
+            }
+            root.setAttribute("http.method", request.getMethod())
+                    .setAttribute("http.target", request.getQueryString() == null ? request.getRequestURI()
+                            : request.getRequestURI() + "?" + request.getQueryString())
+                    .setAttribute("http.status_code", response.getStatus());
+            Tracing.end();
+            recorder.record(trace);
+        }
+    }
+
+    private boolean sampleLocally() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean tryForce() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+        long current = forcedSecond.get();
+        if (current != second && forcedSecond.compareAndSet(current, second)) {
+            forcedInSecond.set(0);
+        }
+        return forcedInSecond.incrementAndGet() <= maxForcedPerSecond;
+    }
+}
@@ -0,0 +1,153 @@
+package dom.dec.carapp.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.dto.SpanDto;
+import dom.dec.carapp.dto.TraceDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the most recent sampled traces; file writes are dropped and counted when the background queue is full.
+ */
+@Component
+@ConditionalOnProperty(name = "car.tracing.enabled", havingValue = "true")
+public class TraceRecorder {
+    private static final Logger log = LoggerFactory.getLogger(TraceRecorder.class);
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private ObjectMapper objectMapper;
+    private int capacity;
+    private ArrayDeque<Trace> recent = new ArrayDeque<>();
+    private AtomicLong dropped = new AtomicLong();
+    private ThreadPoolExecutor writer;
+    private BufferedWriter file;
+
+    @Autowired
+    public TraceRecorder(ObjectMapper objectMapper,
+                         @Value("${car.tracing.max-traces:1000}") int capacity,
+                         @Value("${car.tracing.file:}") String file) throws IOException {
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        if (!file.isBlank()) {
+            Path path = Paths.get(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.file = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "trace-export");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> dropped.incrementAndGet());
+        }
+    }
+
+    public void record(Trace trace) {
+        synchronized (recent) {
+            if (recent.size() >= capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(trace);
+        }
+        if (writer != null) {
+            writer.execute(() -> append(trace));
+        }
+    }
+
+    public List<TraceDto> findSlowest(int limit) {
+        List<Trace> traces;
+        synchronized (recent) {
+            traces = new ArrayList<>(recent);
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingLong(Trace::getDurationNanos).reversed())
+                .limit(limit)
+                .map(TraceRecorder::toDto)
+                .toList();
+    }
+
+    public Optional<TraceDto> findById(String traceId) {
+        synchronized (recent) {
+            for (Trace trace : recent) {
+                if (trace.getTraceId().equals(traceId)) {
+                    return Optional.of(toDto(trace));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            file.close();
+        }
+    }
+
+    private void append(Trace trace) {
+        try {
+            file.write(objectMapper.writeValueAsString(toDto(trace)));
+            file.newLine();
+            file.flush();
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize trace {}", trace.getTraceId(), e);
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+            log.warn("Cannot write trace {}", trace.getTraceId(), e);
+        }
+    }
+
+    static TraceDto toDto(Trace trace) {
+        long start = trace.getRoot().getStartNanos();
+        List<SpanDto> spans = new ArrayList<>(trace.getSpans().size());
+        for (Span span : trace.getSpans()) {
+            spans.add(new SpanDto(span.getSpanId(), span.getParentSpanId(), span.getStage(), span.getName(),
+                    micros(span.getStartNanos() - start), micros(span.getDurationNanos()), span.getAttributes(),
+                    span.getError()));
+        }
+
+        Map<String, Long> selfMicros = new LinkedHashMap<>();
+        trace.getSelfNanosByStage().forEach((stage, nanos) -> selfMicros.put(stage, micros(nanos)));
+        return new TraceDto(trace.getTraceId(), trace.getRoot().getName(), trace.getStartedAt(),
+                micros(trace.getDurationNanos()), selfMicros, spans, trace.getDroppedSpans());
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
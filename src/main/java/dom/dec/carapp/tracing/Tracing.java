@@ -0,0 +1,59 @@
+package dom.dec.carapp.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process tracing with W3C trace context ids, bound to the request thread between {@link #begin} and
+ * {@link #end()}.
+ */
+public final class Tracing {
+    public static final String HTTP = "http";
+    public static final String CONTROLLER = "controller";
+    public static final String VALIDATION = "validation";
+    public static final String SERVICE = "service";
+    public static final String REPOSITORY = "repository";
+    public static final String JDBC = "jdbc";
+    public static final String SERIALIZATION = "serialization";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Tracing() {
+    }
+
+    /**
+     * @param traceId id of the caller's trace to join, or {@code null} to start a new one
+     */
+    public static Trace begin(String traceId, String parentSpanId, String name) {
+        Trace trace = new Trace(traceId != null ? traceId : randomId(16), parentSpanId, name);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    public static Trace end() {
+        Trace trace = CURRENT.get();
+        CURRENT.remove();
+        if (trace != null) {
+            trace.getRoot().end();
+        }
+        return trace;
+    }
+
+    public static Span start(String stage, String name) {
+        Trace trace = CURRENT.get();
+        return trace == null ? Span.NOOP : trace.startSpan(stage, name);
+    }
+
+    static String randomId(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[bytes * 2];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = HEX[random.nextInt(16)];
+        }
+        return new String(id);
+    }
+}
@@ -0,0 +1,43 @@
+package dom.dec.carapp.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+
+public class TracingInterceptor implements MethodInterceptor {
+    private String stage;
+
+    public TracingInterceptor(String stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (Tracing.current() == null) {
+            return invocation.proceed();
+        }
+
+        try (Span span = Tracing.start(stage, typeName(invocation.getThis()) + "." + invocation.getMethod().getName())) {
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                span.recordError(e);
+                throw e;
+            }
+        }
+    }
+
+    // Spring Data repositories are JDK proxies, so name them after the repository interface
+    private static String typeName(Object target) {
+        if (target == null) {
+            return "?";
+        }
+        Class<?> type = ClassUtils.getUserClass(target);
+        if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+            type = type.getInterfaces()[0];
+        }
+        return type.getSimpleName();
+    }
+}
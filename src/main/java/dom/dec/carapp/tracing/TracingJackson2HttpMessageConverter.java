@@ -0,0 +1,38 @@
+package dom.dec.carapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+public class TracingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TracingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        try (Span span = Tracing.start(Tracing.SERIALIZATION, "read " + simpleName(type))) {
+            return super.read(type, contextClass, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        try (Span span = Tracing.start(Tracing.SERIALIZATION, "write " + object.getClass().getSimpleName())) {
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+
+    private static String simpleName(Type type) {
+        return type instanceof Class<?> clazz ? clazz.getSimpleName() : type.getTypeName();
+    }
+}
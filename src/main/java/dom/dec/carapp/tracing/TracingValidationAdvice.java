@@ -0,0 +1,74 @@
+package dom.dec.carapp.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+import java.util.List;
+
+/**
+ * Ordered last, so it wraps whatever validators other binder advice installed.
+ */
+@ControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "car.tracing.enabled", havingValue = "true")
+public class TracingValidationAdvice {
+
+    @InitBinder
+    public void traceValidators(WebDataBinder binder) {
+        List<Validator> validators = binder.getValidators();
+        if (binder.getTarget() == null || validators.isEmpty()) {
+            return;
+        }
+
+        Validator[] traced = new Validator[validators.size()];
+        for (int i = 0; i < traced.length; i++) {
+            Validator validator = validators.get(i);
+            traced[i] = validator instanceof TracingValidator ? validator : new TracingValidator(validator);
+        }
+        binder.replaceValidators(traced);
+    }
+
+    private static class TracingValidator implements SmartValidator {
+        private Validator delegate;
+
+        TracingValidator(Validator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            try (Span span = Tracing.start(Tracing.VALIDATION, name(target))) {
+                delegate.validate(target, errors);
+                span.setAttribute("errors", errors.getErrorCount());
+            }
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            try (Span span = Tracing.start(Tracing.VALIDATION, name(target))) {
+                if (delegate instanceof SmartValidator smart) {
+                    smart.validate(target, errors, validationHints);
+                } else {
+                    delegate.validate(target, errors);
+                }
+                span.setAttribute("errors", errors.getErrorCount());
+            }
+        }
+
+        private String name(Object target) {
+            return delegate.getClass().getSimpleName() + "." + target.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dom.dec.carapp.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+// installs the compiled validator before any advice that wraps the binder validators, such as tracing
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CarDtoValidationAdvice {
+    private ValidationMode mode;
+    private CarDtoValidator validator = new CarDtoValidator();
+
+    public CarDtoValidationAdvice(@Value("${car.validation.mode:compiled}") ValidationMode mode) {
+        this.mode = mode;
+    }
+
+    @InitBinder("carDto")
+    public void initCarDtoBinder(WebDataBinder binder) {
+        if (mode == ValidationMode.COMPILED) {
+            binder.replaceValidators(validator);
+        }
+    }
+}
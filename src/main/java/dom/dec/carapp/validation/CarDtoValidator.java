@@ -0,0 +1,106 @@
+package dom.dec.carapp.validation;
+
+import dom.dec.carapp.dto.CarDto;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-compiled equivalent of the Bean Validation constraints on {@link CarDto}, with limits and messages read from
+ * its annotations.
+ */
+public class CarDtoValidator implements Validator {
+    public static final int BRAND_NULL = 1;
+    public static final int BRAND_SIZE = 1 << 1;
+    public static final int MODEL_NULL = 1 << 2;
+    public static final int MODEL_SIZE = 1 << 3;
+    public static final int COLOR_NULL = 1 << 4;
+    public static final int PRODUCTION_YEAR_MIN = 1 << 5;
+
+    private static final int BRAND_MIN_LENGTH = annotation("brand", Size.class).min();
+    private static final int MODEL_MIN_LENGTH = annotation("model", Size.class).min();
+    private static final long PRODUCTION_YEAR_MIN_VALUE = annotation("productionYear", Min.class).value();
+
+    private static final String[] FIELDS = {"brand", "brand", "model", "model", "color", "productionYear"};
+    private static final String[] CODES = {"NotNull", "Size", "NotNull", "Size", "NotNull", "Min"};
+    private static final String[] MESSAGES = {
+            annotation("brand", NotNull.class).message(),
+            annotation("brand", Size.class).message(),
+            annotation("model", NotNull.class).message(),
+            annotation("model", Size.class).message(),
+            annotation("color", NotNull.class).message(),
+            annotation("productionYear", Min.class).message()
+    };
+
+    public int check(CarDto carDto) {
+        int violations = 0;
+
+        String brand = carDto.getBrand();
+        if (brand == null) {
+            violations |= BRAND_NULL;
+        } else if (brand.length() < BRAND_MIN_LENGTH) {
+            violations |= BRAND_SIZE;
+        }
+
+        String model = carDto.getModel();
+        if (model == null) {
+            violations |= MODEL_NULL;
+        } else if (model.length() < MODEL_MIN_LENGTH) {
+            violations |= MODEL_SIZE;
+        }
+
+        if (carDto.getColor() == null) {
+            violations |= COLOR_NULL;
+        }
+
+        if (carDto.getProductionYear() < PRODUCTION_YEAR_MIN_VALUE) {
+            violations |= PRODUCTION_YEAR_MIN;
+        }
+
+        return violations;
+    }
+
+    public List<String> messages(CarDto carDto) {
+        int violations = check(carDto);
+        if (violations == 0) {
+            return List.of();
+        }
+
+        List<String> messages = new ArrayList<>(Integer.bitCount(violations));
+        for (int rule = 0; rule < MESSAGES.length; rule++) {
+            if ((violations & (1 << rule)) != 0) {
+                messages.add(MESSAGES[rule]);
+            }
+        }
+        return messages;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return CarDto.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        int violations = check((CarDto) target);
+        for (int rule = 0; violations != 0 && rule < MESSAGES.length; rule++) {
+            if ((violations & (1 << rule)) != 0) {
+                errors.rejectValue(FIELDS[rule], CODES[rule], MESSAGES[rule]);
+            }
+        }
+    }
+
+    private static <A extends Annotation> A annotation(String field, Class<A> type) {
+        try {
+            return CarDto.class.getDeclaredField(field).getAnnotation(type);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("CarDto has no field " + field, e);
+        }
+    }
+}
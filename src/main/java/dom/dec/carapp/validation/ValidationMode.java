@@ -0,0 +1,5 @@
+package dom.dec.carapp.validation;
+
+public enum ValidationMode {
+    COMPILED, STANDARD
+}
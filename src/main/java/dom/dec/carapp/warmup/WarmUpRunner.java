@@ -0,0 +1,226 @@
+package dom.dec.carapp.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.service.CarService;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readiness stays down until this runner returns: a round met the p99 target or the time budget ran out.
+ */
+@Component
+@ConditionalOnProperty(name = "car.warmup.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String[] BRANDS = {"Audi", "BMW", "Fiat", "Toyota", "Volvo"};
+    private static final String INVALID_CAR = "{\"brand\":\"A\",\"model\":\"\",\"color\":\"RED\",\"productionYear\":1800}";
+    private static final int RECENT_YEARS = 40;
+    private static final int WIDE_RANGE_YEARS = 10;
+    private static final long MAX_PROBED_ID = 1000;
+
+    private CarService carService;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private Validator validator;
+    private ApplicationEventPublisher eventPublisher;
+    private Environment environment;
+    private int roundSize;
+    private int concurrency;
+    private int minRounds;
+    private double targetP99Millis;
+    private long maxDurationMillis;
+    private int currentYear = Year.now().getValue();
+
+    @Autowired
+    public WarmUpRunner(CarService carService, ObjectProvider<TransactionTemplate> transactionTemplate,
+                        ObjectMapper objectMapper,
+                        Validator validator, ApplicationEventPublisher eventPublisher, Environment environment,
+                        @Value("${car.warmup.round-size:200}") int roundSize,
+                        @Value("${car.warmup.concurrency:4}") int concurrency,
+                        @Value("${car.warmup.min-rounds:3}") int minRounds,
+                        @Value("${car.warmup.target-p99-ms:25}") double targetP99Millis,
+                        @Value("${car.warmup.max-duration-ms:60000}") long maxDurationMillis) {
+        this.carService = carService;
+        // the embedded store has no transactions, so writes there could not be rolled back
+        this.transactionTemplate = environment.acceptsProfiles(Profiles.of("embedded")) ? null
+                : transactionTemplate.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.environment = environment;
+        this.roundSize = roundSize;
+        this.concurrency = concurrency;
+        this.minRounds = minRounds;
+        this.targetP99Millis = targetP99Millis;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            log.info("warm-up skipped, no web server is running");
+            return;
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            warmUp(URI.create("http://localhost:" + port), clients);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("warm-up failed, continuing startup", e);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void warmUp(URI baseUrl, ExecutorService clients) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+
+        for (int round = 1; ; round++) {
+            if (transactionTemplate != null) {
+                rolledBackWrites(Math.max(1, roundSize / 10));
+            }
+            double p99 = p99Millis(requestRound(client, baseUrl, clients));
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("warm-up round {}: p99 {} ms", round, String.format("%.1f", p99));
+
+            if (round >= minRounds && p99 <= targetP99Millis) {
+                log.info("warm-up reached p99 target {} ms after {} rounds in {} ms", targetP99Millis, round, elapsed);
+                return;
+            }
+            if (System.nanoTime() >= deadline) {
+                log.warn("warm-up stopped after {} rounds in {} ms, last p99 {} ms is above target {} ms",
+                        round, elapsed, String.format("%.1f", p99), targetP99Millis);
+                return;
+            }
+        }
+    }
+
+    private long[] requestRound(HttpClient client, URI baseUrl, ExecutorService clients) throws InterruptedException {
+        long[] latencies = new long[roundSize];
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            int first = worker;
+            workers.add(clients.submit(() -> {
+                for (int i = first; i < roundSize; i += concurrency) {
+                    long sent = System.nanoTime();
+                    send(client, request(baseUrl, i));
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("warm-up request failed", e.getCause());
+            }
+        }
+        return latencies;
+    }
+
+    private HttpRequest request(URI baseUrl, int i) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+
+        if (i % 10 < 2) {
+            return builder.uri(baseUrl.resolve("/cars/" + random.nextLong(1, MAX_PROBED_ID))).GET().build();
+        }
+        if (i % 10 == 2) {
+            // rejected by validation, so it exercises request parsing and error handling without writing anything
+            return builder.uri(baseUrl.resolve("/cars"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(INVALID_CAR))
+                    .build();
+        }
+        int from = currentYear - random.nextInt(RECENT_YEARS);
+        int to = from + (i % 200 == 0 ? WIDE_RANGE_YEARS : random.nextInt(5));
+        return builder.uri(baseUrl.resolve("/cars/filter?from=" + from + "&to=" + to)).GET().build();
+    }
+
+    private static void send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rolledBackWrites(int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                CarDto newCar = randomCar();
+                validator.validate(newCar);
+                Car saved = carService.saveCar(newCar);
+                Car updated = carService.updateCar(randomCar(), saved.getCarId());
+                try {
+                    objectMapper.writeValueAsBytes(updated);
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            status.setRollbackOnly();
+        });
+    }
+
+    private CarDto randomCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new CarDto(BRANDS[random.nextInt(BRANDS.length)], "Warm-up",
+                Color.values()[random.nextInt(Color.values().length)], currentYear - random.nextInt(RECENT_YEARS));
+    }
+
+    private static double p99Millis(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(sorted.length * 0.99) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
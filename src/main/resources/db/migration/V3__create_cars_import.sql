@@ -0,0 +1,10 @@
+CREATE TABLE cars_import
+(
+    import_id       VARCHAR(36)  NOT NULL,
+    line_number     BIGINT       NOT NULL,
+    brand           varchar(255) NOT NULL,
+    model           varchar(255) NOT NULL,
+    color           varchar(255) NOT NULL,
+    production_year INT,
+    PRIMARY KEY (import_id, line_number)
+)
@@ -0,0 +1,11 @@
+CREATE TABLE cars_archive
+(
+    car_id          INT PRIMARY KEY,
+    brand           varchar(255) NOT NULL,
+    model           varchar(255) NOT NULL,
+    color           varchar(255) NOT NULL,
+    production_year INT
+);
+
+CREATE INDEX idx_cars_production_year ON cars (production_year);
+CREATE INDEX idx_cars_archive_production_year ON cars_archive (production_year);
@@ -0,0 +1,2 @@
+ALTER TABLE cars ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE cars_archive ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
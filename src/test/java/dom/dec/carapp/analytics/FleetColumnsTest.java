@@ -0,0 +1,119 @@
+package dom.dec.carapp.analytics;
+
+import dom.dec.carapp.domain.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetColumnsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldCountYearsInRange() {
+        FleetColumns columns = sampleFleet();
+
+        long[] histogram = columns.yearHistogram(2015, 2021);
+
+        assertArrayEquals(new long[]{1, 0, 0, 1, 0, 1, 2}, histogram);
+    }
+
+    @Test
+    public void shouldCountYearsWhenRangeReversed() {
+        FleetColumns columns = sampleFleet();
+
+        long[] histogram = columns.yearHistogram(2016, 2014);
+
+        assertArrayEquals(new long[]{0, 1, 0}, histogram);
+    }
+
+    @Test
+    public void shouldReturnColorDistributionByOrdinal() {
+        FleetColumns columns = sampleFleet();
+
+        long[] colors = columns.colorDistribution(1900, 2100);
+
+        assertEquals(2, colors[Color.RED.ordinal()]);
+        assertEquals(2, colors[Color.WHITE.ordinal()]);
+        assertEquals(1, colors[Color.BLACK.ordinal()]);
+        assertEquals(0, colors[Color.BLUE.ordinal()]);
+    }
+
+    @Test
+    public void shouldDecodeDictionaryEncodedBrands() {
+        FleetColumns columns = sampleFleet();
+
+        long[] brands = columns.brandDistribution(1900, 2100);
+
+        assertEquals(6, brands.length);
+        assertEquals("Fiat", columns.brand(2));
+        assertEquals(2, brands[2]);
+        assertEquals("Punto", columns.model(6));
+    }
+
+    @Test
+    public void shouldStopAppendingWhenCapacityReached() {
+        FleetColumns.Writer writer = FleetColumns.writer(tempDir.resolve("small.col"), 1);
+
+        assertTrue(writer.append(2020, Color.RED, "Audi", "A4"));
+        assertFalse(writer.append(2021, Color.RED, "Audi", "A4"));
+        assertEquals(1, writer.build().getRows());
+    }
+
+    @Test
+    public void shouldScanLargeFleetInParallelParts() {
+        int size = 500_000;
+        FleetColumns.Writer writer = FleetColumns.writer(tempDir.resolve("large.col"), size);
+        for (int i = 0; i < size; i++) {
+            writer.append(2000 + i % 20, Color.values()[i % Color.values().length], "Brand" + i % 7, "Model" + i % 11);
+        }
+        FleetColumns columns = writer.build();
+
+        long[] histogram = columns.yearHistogram(2000, 2019);
+
+        assertEquals(20, histogram.length);
+        for (long count : histogram) {
+            assertEquals(size / 20, count);
+        }
+    }
+
+    @Test
+    public void shouldDeleteMappedFile() {
+        FleetColumns columns = sampleFleet();
+
+        columns.delete();
+
+        assertFalse(Files.exists(columns.getFile()));
+    }
+
+    @Test
+    public void shouldKeepFileUntilLastReferenceIsReleased() {
+        FleetColumns columns = sampleFleet();
+        assertTrue(columns.retain());
+
+        columns.release();
+        assertTrue(Files.exists(columns.getFile()));
+        assertArrayEquals(new long[]{1}, columns.yearHistogram(2015, 2015));
+
+        columns.release();
+        assertFalse(Files.exists(columns.getFile()));
+        assertFalse(columns.retain());
+    }
+
+    private FleetColumns sampleFleet() {
+        FleetColumns.Writer writer = FleetColumns.writer(tempDir.resolve("fleet.col"), 7);
+        writer.append(2020, Color.RED, "Alfa Romeo", "Gulietta");
+        writer.append(2015, Color.BLACK, "Volvo", "V40");
+        writer.append(2006, Color.YELLOW, "Fiat", "Panda");
+        writer.append(2018, Color.WHITE, "Audi", "A4");
+        writer.append(2021, Color.WHITE, "Toyota", "Corolla");
+        writer.append(2021, Color.SILVER, "BMW", "330i");
+        writer.append(2009, Color.RED, "Fiat", "Punto");
+        return writer.build();
+    }
+}
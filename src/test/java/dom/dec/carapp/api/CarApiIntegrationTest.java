@@ -1,12 +1,18 @@
 package dom.dec.carapp.api;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dom.dec.carapp.domain.Car;
 import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.BulkResultDto;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.monitoring.SqlStatistics;
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,9 +21,15 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+import java.util.Map;
+
+import static dom.dec.carapp.monitoring.SqlBudgetMatchers.maxRowsFetched;
+import static dom.dec.carapp.monitoring.SqlBudgetMatchers.withinSqlBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -29,7 +41,7 @@ public class CarApiIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
     @Autowired
-    private Flyway flyway;
+    private ObjectProvider<Flyway> flyway;
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -38,6 +50,7 @@ public class CarApiIntegrationTest {
         MvcResult result = mockMvc.perform(get(END_POINT_PATH)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
                 .andReturn();
 
         Car[] cars = objectMapper.readValue(result.getResponse().getContentAsString(), Car[].class);
@@ -55,6 +68,8 @@ public class CarApiIntegrationTest {
         MvcResult result = mockMvc.perform(get(URI)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(maxRowsFetched(2))
                 .andReturn();
 
         Car[] cars = objectMapper.readValue(result.getResponse().getContentAsString(), Car[].class);
@@ -86,6 +101,59 @@ public class CarApiIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void getAllByYearRangesShouldReturnCarsForEachRange() throws Exception {
+        String requestBody = "[{\"from\":2014,\"to\":2019},{\"from\":2000,\"to\":2005},{\"from\":2019,\"to\":2017}]";
+
+        MvcResult result = mockMvc.perform(post(END_POINT_PATH + "/filter/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlStatistics.ATTRIBUTE);
+        assertEquals(batchQueryStatements(), statistics.getStatements(), "queries run on the batch pool count towards the request");
+        Map<String, Car[]> cars = objectMapper.readValue(result.getResponse().getContentAsString(),
+                new TypeReference<Map<String, Car[]>>() {
+                });
+
+        assertEquals(List.of("2014-2019", "2000-2005", "2019-2017"), List.copyOf(cars.keySet()));
+        assertEquals(2, cars.get("2014-2019").length);
+        assertEquals(0, cars.get("2000-2005").length);
+        assertEquals(1, cars.get("2019-2017").length);
+    }
+
+    @Test
+    public void getAllFieldsShouldReturnOnlyRequestedFields() throws Exception {
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH + "?fields=carId,brand"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        List<Map<String, Object>> cars = objectMapper.readValue(result.getResponse().getContentAsString(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+
+        assertEquals(7, cars.size());
+        assertEquals(Map.of("carId", 1, "brand", "Alfa Romeo"), cars.get(0));
+    }
+
+    @Test
+    public void getAllFieldsByYearShouldReturnOnlyRequestedFieldsInRange() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/filter?from=2019&to=2014&fields=model,productionYear,color"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(content().json("[{\"model\":\"V40\",\"productionYear\":2015,\"color\":\"BLACK\"}," +
+                        "{\"model\":\"A4\",\"productionYear\":2018,\"color\":\"WHITE\"}]", true));
+    }
+
+    @Test
+    public void getAllFieldsShouldReturnBadRequestWhenUnknownField() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "?fields=carId,price"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void addCarShouldReturnCreatedCar() throws Exception {
         CarDto carDto = new CarDto("Honda", "Civic", Color.BLACK, 2006);
@@ -95,6 +163,7 @@ public class CarApiIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(requestBody))
                 .andExpect(status().isCreated())
+                .andExpect(withinSqlBudget())
                 .andReturn();
 
         Car car = objectMapper.readValue(result.getResponse().getContentAsString(), Car.class);
@@ -128,6 +197,7 @@ public class CarApiIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(requestBody))
                 .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
                 .andReturn();
 
         Car car = objectMapper.readValue(result.getResponse().getContentAsString(), Car.class);
@@ -172,7 +242,8 @@ public class CarApiIntegrationTest {
 
         mockMvc.perform(delete(URI)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(withinSqlBudget());
     }
 
     @Test
@@ -185,9 +256,150 @@ public class CarApiIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void getByIdShouldReturnCar() throws Exception {
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH + "/2"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        Car car = objectMapper.readValue(result.getResponse().getContentAsString(), Car.class);
+
+        assertEquals(2, car.getCarId());
+        assertEquals("Volvo", car.getBrand());
+    }
+
+    @Test
+    public void getByIdShouldReturnUpdatedCarAfterUpdate() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget());
+
+        String requestBody = objectMapper.writeValueAsString(new CarDto("Honda", "Accord", Color.BLACK, 2006));
+        mockMvc.perform(put(END_POINT_PATH + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget());
+
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        assertEquals("Honda", objectMapper.readValue(result.getResponse().getContentAsString(), Car.class).getBrand());
+    }
+
+    @Test
+    public void getAllShouldReturnUpdatedCarAfterListingWasCached() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk());
+
+        String requestBody = objectMapper.writeValueAsString(new CarDto("Honda", "Accord", Color.BLACK, 2006));
+        mockMvc.perform(put(END_POINT_PATH + "/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"carId\":1,\"brand\":\"Honda\"}"));
+
+        String body = mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Car[] cars = objectMapper.readValue(body, Car[].class);
+
+        assertEquals("Honda", cars[0].getBrand());
+        assertEquals(-1, body.indexOf("version"));
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenInvalidId() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/10"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getAllByIdsShouldReturnCarsInRequestOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH + "?ids=6,1,42,3"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        CarBatchDto batch = objectMapper.readValue(result.getResponse().getContentAsString(), CarBatchDto.class);
+
+        assertEquals(3, batch.getCars().size());
+        assertEquals("BMW", batch.getCars().get(0).getBrand());
+        assertEquals("Alfa Romeo", batch.getCars().get(1).getBrand());
+        assertEquals("Fiat", batch.getCars().get(2).getBrand());
+        assertEquals(42L, batch.getMissing().get(0));
+    }
+
+    @Test
+    public void updateAllMatchingShouldRecolorAllCarsOfBrand() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new CarPatchDto(null, null, Color.BLUE, null));
+
+        MvcResult result = mockMvc.perform(patch(END_POINT_PATH + "?brand=Fiat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        BulkResultDto bulkResult = objectMapper.readValue(result.getResponse().getContentAsString(), BulkResultDto.class);
+        assertEquals(2, bulkResult.getAffected());
+
+        MvcResult cars = mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        for (Car car : objectMapper.readValue(cars.getResponse().getContentAsString(), Car[].class)) {
+            assertEquals(car.getBrand().equals("Fiat") ? Color.BLUE : car.getColor(), car.getColor());
+        }
+    }
+
+    @Test
+    public void deleteAllMatchingShouldOnlyCountOnDryRun() throws Exception {
+        MvcResult result = mockMvc.perform(delete(END_POINT_PATH + "?to=2010&dryRun=true"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        BulkResultDto bulkResult = objectMapper.readValue(result.getResponse().getContentAsString(), BulkResultDto.class);
+        assertEquals(2, bulkResult.getAffected());
+
+        MvcResult cars = mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        assertEquals(7, objectMapper.readValue(cars.getResponse().getContentAsString(), Car[].class).length);
+    }
+
+    @Test
+    public void deleteAllMatchingShouldDeleteCarsProducedBeforeYear() throws Exception {
+        MvcResult result = mockMvc.perform(delete(END_POINT_PATH + "?to=2010"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        BulkResultDto bulkResult = objectMapper.readValue(result.getResponse().getContentAsString(), BulkResultDto.class);
+        assertEquals(2, bulkResult.getAffected());
+
+        MvcResult cars = mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        assertEquals(5, objectMapper.readValue(cars.getResponse().getContentAsString(), Car[].class).length);
+    }
+
     @AfterEach
     public void reset() {
-        flyway.clean();
-        flyway.migrate();
+        flyway.getObject().clean();
+        flyway.getObject().migrate();
+    }
+
+    protected long batchQueryStatements() {
+        return 2;
     }
 }
@@ -3,12 +3,19 @@ package dom.dec.carapp.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dom.dec.carapp.domain.Car;
 import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.dto.YearRangeDto;
 import dom.dec.carapp.exception.ResourceNotFoundException;
+import dom.dec.carapp.service.CarBatchQueryService;
 import dom.dec.carapp.service.CarService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
@@ -16,8 +23,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -26,6 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 
 @WebMvcTest(CarApi.class)
+@Import({CarQueryCoalescer.class, CarJsonCache.class})
 class CarApiTest {
     private static final String END_POINT_PATH = "/cars";
 
@@ -35,6 +45,8 @@ class CarApiTest {
     private ObjectMapper objectMapper;
     @MockBean
     private CarService service;
+    @MockBean
+    private CarBatchQueryService batchQueryService;
 
     @Test
     public void addCarShouldReturnBadRequestWhenInvalidCarDto() throws Exception {
@@ -126,6 +138,75 @@ class CarApiTest {
         verify(service, times(1)).findAllByYear(from, to);
     }
 
+    @Test
+    public void getAllByYearRangesShouldReturnCarsKeyedByRange() throws Exception {
+        List<YearRangeDto> ranges = List.of(new YearRangeDto(2010, 2014), new YearRangeDto(2020, 2015));
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+
+        when(batchQueryService.findAllByYearRanges(any())).thenReturn(List.of(List.of(), List.of(car)));
+
+        mockMvc.perform(post(END_POINT_PATH + "/filter/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ranges)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2010-2014'].length()", is(0)))
+                .andExpect(jsonPath("$['2020-2015'][0].brand", is("Audi")))
+                .andDo(print());
+
+        verify(batchQueryService, times(1)).findAllByYearRanges(any());
+    }
+
+    @Test
+    public void getAllByYearRangesShouldReturnBadRequestWhenInvalidRange() throws Exception {
+        List<YearRangeDto> ranges = List.of(new YearRangeDto(2010, 2014), new YearRangeDto(1899, 2015));
+
+        mockMvc.perform(post(END_POINT_PATH + "/filter/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ranges)))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(batchQueryService, times(0)).findAllByYearRanges(any());
+    }
+
+    @Test
+    public void getAllByYearRangesShouldReturnBadRequestWhenNoRanges() throws Exception {
+        mockMvc.perform(post(END_POINT_PATH + "/filter/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(batchQueryService, times(0)).findAllByYearRanges(any());
+    }
+
+    @Test
+    public void getAllFieldsShouldWriteOnlyRequestedFields() throws Exception {
+        List<String> fields = List.of("carId", "color");
+        when(service.findAll(fields)).thenReturn(new CarProjectionDto(fields,
+                List.<Object[]>of(new Object[]{3L, Color.RED}, new Object[]{5L, null})));
+
+        mockMvc.perform(get(END_POINT_PATH + "?fields=carId, color,carId"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{\"carId\":3,\"color\":\"RED\"},{\"carId\":5,\"color\":null}]", true))
+                .andDo(print());
+
+        verify(service, times(1)).findAll(fields);
+    }
+
+    @Test
+    public void getAllFieldsByYearShouldReturnNotFoundWhenNoCars() throws Exception {
+        List<String> fields = List.of("brand");
+        when(service.findAllByYear(2000, 2005, fields)).thenReturn(new CarProjectionDto(fields, List.of()));
+
+        mockMvc.perform(get(END_POINT_PATH + "/filter?from=2000&to=2005&fields=brand"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+
+        verify(service, times(0)).findAllByYear(anyLong(), anyLong());
+    }
+
     @Test
     public void getAllShouldReturnNoContentWhenNoCars() throws Exception {
         when(service.findAll()).thenReturn(new ArrayList<>());
@@ -242,6 +323,115 @@ class CarApiTest {
 
         verify(service, times(1)).deleteCar(id);
     }
+
+    @Test
+    public void getByIdShouldReturnCar() throws Exception {
+        Car car = new Car("Audi", "A4", Color.GREEN, 2020);
+        car.setCarId(1L);
+
+        when(service.findById(1L)).thenReturn(car);
+
+        mockMvc.perform(get(END_POINT_PATH + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.carId", is(1)))
+                .andExpect(jsonPath("$.brand", is("Audi")))
+                .andDo(print());
+
+        verify(service, times(1)).findById(1L);
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenNoCar() throws Exception {
+        when(service.findById(10L)).thenThrow(new ResourceNotFoundException("Car", "id", 10L));
+
+        mockMvc.perform(get(END_POINT_PATH + "/10"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void getAllByIdsShouldReturnCarsAndMissingIds() throws Exception {
+        Car car = new Car("Audi", "A4", Color.GREEN, 2020);
+        car.setCarId(1L);
+
+        when(service.findAllByIds(Arrays.asList(1L, 5L))).thenReturn(new CarBatchDto(Arrays.asList(car), Arrays.asList(5L)));
+
+        mockMvc.perform(get(END_POINT_PATH + "?ids=1,5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars[0].carId", is(1)))
+                .andExpect(jsonPath("$.missing[0]", is(5)))
+                .andDo(print());
+
+        verify(service, times(1)).findAllByIds(Arrays.asList(1L, 5L));
+        verify(service, times(0)).findAll();
+    }
+
+    @Test
+    public void updateAllMatchingShouldReturnAffectedCount() throws Exception {
+        CarPatchDto patch = new CarPatchDto(null, null, Color.BLUE, null);
+        String requestBody = objectMapper.writeValueAsString(patch);
+
+        when(service.updateAllMatching(any(CarFilterDto.class), any(CarPatchDto.class), eq(false))).thenReturn(5L);
+
+        mockMvc.perform(patch(END_POINT_PATH + "?model=A4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(5)))
+                .andExpect(jsonPath("$.dryRun", is(false)))
+                .andDo(print());
+
+        verify(service, times(1)).updateAllMatching(any(CarFilterDto.class), any(CarPatchDto.class), eq(false));
+    }
+
+    @Test
+    public void updateAllMatchingShouldReturnBadRequestWhenNoFilter() throws Exception {
+        CarPatchDto patch = new CarPatchDto(null, null, Color.BLUE, null);
+        String requestBody = objectMapper.writeValueAsString(patch);
+
+        mockMvc.perform(patch(END_POINT_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(service, times(0)).updateAllMatching(any(CarFilterDto.class), any(CarPatchDto.class), anyBoolean());
+    }
+
+    @Test
+    public void updateAllMatchingShouldReturnBadRequestWhenNothingToChange() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new CarPatchDto());
+
+        mockMvc.perform(patch(END_POINT_PATH + "?model=A4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(service, times(0)).updateAllMatching(any(CarFilterDto.class), any(CarPatchDto.class), anyBoolean());
+    }
+
+    @Test
+    public void deleteAllMatchingShouldReturnCountOnDryRun() throws Exception {
+        when(service.deleteAllMatching(any(CarFilterDto.class), eq(true))).thenReturn(3L);
+
+        mockMvc.perform(delete(END_POINT_PATH + "?to=1990&dryRun=true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(3)))
+                .andExpect(jsonPath("$.dryRun", is(true)))
+                .andDo(print());
+
+        verify(service, times(1)).deleteAllMatching(any(CarFilterDto.class), eq(true));
+    }
+
+    @Test
+    public void deleteAllMatchingShouldReturnBadRequestWhenInvalidYear() throws Exception {
+        mockMvc.perform(delete(END_POINT_PATH + "?to=1800"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(service, times(0)).deleteAllMatching(any(CarFilterDto.class), anyBoolean());
+    }
 }
 
 
@@ -0,0 +1,123 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.dto.ImportReportDto;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CarImportApiIntegrationTest {
+    private static final String END_POINT_PATH = "/cars/import";
+    private static final String TEXT_CSV = "text/csv";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importShouldLoadValidRowsAndReportRejectedOnes() throws Exception {
+        String csv = "brand,model,color,production_year\n" +
+                "Honda,Civic,BLACK,2006\n" +
+                "\"Mercedes, Benz\",C200,silver,2019\n" +
+                "X,Fabia,GREEN,2010\n" +
+                "Skoda,Octavia,PINK,2012\n" +
+                "Opel,Astra,BLUE,1899\n" +
+                "Mazda,6,RED,2017\n";
+
+        ImportReportDto report = importCsv(csv);
+
+        assertEquals(3, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(4, report.getRejections().get(0).getLine());
+        assertEquals("Brand cannot be less than 2 characters", report.getRejections().get(0).getMessage());
+        assertEquals("Color must be one of [WHITE, YELLOW, RED, GREEN, BLUE, SILVER, BLACK]", report.getRejections().get(1).getMessage());
+        assertEquals("Production year cannot be less than 1900", report.getRejections().get(2).getMessage());
+
+        Car[] cars = getAllCars();
+        assertEquals(10, cars.length);
+        assertEquals("Mercedes, Benz", cars[8].getBrand());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars_import", Integer.class));
+    }
+
+    @Test
+    public void importShouldLoadRowsAcrossSeveralBatches() throws Exception {
+        int rows = 12_345;
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            csv.append("Brand").append(i % 10).append(",Model").append(i % 100).append(",RED,").append(1950 + i % 70).append('\n');
+        }
+
+        ImportReportDto report = importCsv(csv.toString());
+
+        assertEquals(rows, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertEquals(rows + 7, getAllCars().length);
+    }
+
+    @Test
+    public void importShouldRejectRowsWithWrongColumnCount() throws Exception {
+        ImportReportDto report = importCsv("Honda,Civic,BLACK\n");
+
+        assertEquals(0, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals("Expected 4 columns but found 3", report.getRejections().get(0).getMessage());
+    }
+
+    @Test
+    public void importShouldSkipHeaderOfEmbeddedSeedFile() throws Exception {
+        String seed = new ClassPathResource("db/embedded/cars.csv").getContentAsString(StandardCharsets.UTF_8);
+
+        ImportReportDto report = importCsv(seed);
+
+        assertEquals(7, report.getImported());
+        assertEquals(0, report.getRejected());
+    }
+
+    private ImportReportDto importCsv(String csv) throws Exception {
+        MvcResult result = mockMvc.perform(post(END_POINT_PATH)
+                        .contentType(TEXT_CSV)
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), ImportReportDto.class);
+    }
+
+    private Car[] getAllCars() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cars"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Car[].class);
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+}
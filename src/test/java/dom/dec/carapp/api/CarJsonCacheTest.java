@@ -0,0 +1,89 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.service.CarChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarJsonCacheTest {
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldReuseBodyForSameVersion() {
+        CarJsonCache cache = new CarJsonCache(objectMapper, Long.MAX_VALUE);
+
+        byte[] first = cache.get(car(1L, 0, "Audi"));
+        byte[] second = cache.get(car(1L, 0, "Audi"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void shouldSerializeAgainWhenVersionChanges() throws Exception {
+        CarJsonCache cache = new CarJsonCache(objectMapper, Long.MAX_VALUE);
+        cache.get(car(1L, 0, "Audi"));
+
+        byte[] updated = cache.get(car(1L, 1, "Volvo"));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(car(1L, 1, "Volvo")), updated);
+    }
+
+    @Test
+    public void shouldWriteSameArrayAsJackson() throws Exception {
+        CarJsonCache cache = new CarJsonCache(objectMapper, Long.MAX_VALUE);
+        List<Car> cars = List.of(car(1L, 0, "Audi"), car(2L, 3, "Volvo"), car(3L, 0, "Fiat"));
+        cache.get(cars.get(1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.writeArray(cars, out);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(cars), out.toByteArray());
+        assertFalse(out.toString().contains("version"));
+    }
+
+    @Test
+    public void shouldStayWithinByteBudget() {
+        long oneEntry = cacheCost(car(1L, 0, "Audi"));
+        CarJsonCache cache = new CarJsonCache(objectMapper, 2 * oneEntry);
+
+        byte[] first = cache.get(car(1L, 0, "Audi"));
+        cache.get(car(2L, 0, "Audi"));
+        cache.get(car(1L, 0, "Audi"));
+        cache.get(car(3L, 0, "Audi"));
+
+        assertTrue(cache.getUsedBytes() <= 2 * oneEntry);
+        assertSame(first, cache.get(car(1L, 0, "Audi")));
+    }
+
+    @Test
+    public void shouldReleaseMemoryOnChange() {
+        CarJsonCache cache = new CarJsonCache(objectMapper, Long.MAX_VALUE);
+        cache.get(car(1L, 0, "Audi"));
+        cache.get(car(2L, 0, "Audi"));
+
+        cache.onCarChanged(CarChangedEvent.of(1L));
+        assertEquals(cacheCost(car(2L, 0, "Audi")), cache.getUsedBytes());
+
+        cache.onCarChanged(CarChangedEvent.bulk());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    private long cacheCost(Car car) {
+        CarJsonCache cache = new CarJsonCache(objectMapper, Long.MAX_VALUE);
+        cache.get(car);
+        return cache.getUsedBytes();
+    }
+
+    private Car car(long id, long version, String brand) {
+        Car car = new Car(brand, "A4", Color.BLACK, 2020);
+        car.setCarId(id);
+        car.setVersion(version);
+        return car;
+    }
+}
@@ -0,0 +1,152 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.service.CarService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CarQueryCoalescerTest {
+    private static final long LOAD_MILLIS = 100;
+    private static final long FAILING_LOAD_MILLIS = 500;
+
+    @Test
+    public void shouldShareOneLoadBetweenConcurrentIdenticalRequests() throws Exception {
+        int[] concurrencyLevels = {1, 10, 100, 400};
+
+        for (int concurrency : concurrencyLevels) {
+            AtomicInteger calls = new AtomicInteger();
+            CarQueryCoalescer coalescer = new CarQueryCoalescer(slowService(calls), new CarJsonCache(new ObjectMapper(), Long.MAX_VALUE));
+
+            List<byte[]> bodies = runConcurrently(concurrency, () -> coalescer.findAllByYear(2015, 2021));
+
+            // a straggler that arrives after the first load finished starts a second one
+            assertTrue(calls.get() <= 2);
+            assertTrue(bodies.stream().allMatch(body -> Arrays.equals(body, bodies.get(0))));
+        }
+    }
+
+    @Test
+    public void shouldCoalesceReversedRanges() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CarQueryCoalescer coalescer = new CarQueryCoalescer(slowService(calls), new CarJsonCache(new ObjectMapper(), Long.MAX_VALUE));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<byte[]> first = executor.submit(() -> {
+            start.await();
+            return coalescer.findAllByYear(2015, 2021);
+        });
+        Future<byte[]> second = executor.submit(() -> {
+            start.await();
+            return coalescer.findAllByYear(2021, 2015);
+        });
+        start.countDown();
+
+        assertSame(first.get(), second.get());
+        assertEquals(1, calls.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldLoadAgainOnceFlightCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+        CarQueryCoalescer coalescer = new CarQueryCoalescer(slowService(calls), new CarJsonCache(new ObjectMapper(), Long.MAX_VALUE));
+
+        coalescer.findAllByYear(2015, 2021);
+        coalescer.findAllByYear(2015, 2021);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void shouldReturnNoCarsMarkerWhenEmpty() {
+        CarService carService = mock(CarService.class);
+        when(carService.findAllByYear(anyLong(), anyLong())).thenReturn(new ArrayList<>());
+
+        byte[] body = new CarQueryCoalescer(carService, new CarJsonCache(new ObjectMapper(), Long.MAX_VALUE)).findAllByYear(2000, 2005);
+
+        assertSame(CarQueryCoalescer.NO_CARS, body);
+    }
+
+    @Test
+    public void shouldPropagateFailureToAllWaiters() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CarService carService = mock(CarService.class);
+        when(carService.findAllByYear(anyLong(), anyLong())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(FAILING_LOAD_MILLIS);
+                throw new IllegalStateException("database down");
+            }
+            return List.of(new Car("Audi", "A4", Color.BLACK, 2018));
+        });
+        CarQueryCoalescer coalescer = new CarQueryCoalescer(carService, new CarJsonCache(new ObjectMapper(), Long.MAX_VALUE));
+
+        int concurrency = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return coalescer.findAllByYear(2000, 2005);
+            }));
+        }
+        start.countDown();
+
+        for (Future<byte[]> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(1, calls.get());
+        executor.shutdown();
+
+        assertNotSame(CarQueryCoalescer.NO_CARS, coalescer.findAllByYear(2000, 2005));
+        assertEquals(2, calls.get());
+    }
+
+    private CarService slowService(AtomicInteger calls) {
+        CarService carService = mock(CarService.class);
+        when(carService.findAllByYear(anyLong(), anyLong())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            Thread.sleep(LOAD_MILLIS);
+            return List.of(new Car("Audi", "A4", Color.BLACK, 2018));
+        });
+        return carService;
+    }
+
+    private List<byte[]> runConcurrently(int concurrency, Callable<byte[]> request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return request.call();
+            }));
+        }
+        start.countDown();
+
+        List<byte[]> bodies = new ArrayList<>();
+        for (Future<byte[]> future : futures) {
+            bodies.add(future.get());
+        }
+        executor.shutdown();
+        return bodies;
+    }
+}
@@ -0,0 +1,205 @@
+package dom.dec.carapp.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.service.CarTieringJob;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static dom.dec.carapp.monitoring.SqlBudgetMatchers.maxStatements;
+import static dom.dec.carapp.monitoring.SqlBudgetMatchers.withinSqlBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"car.tiering.cutoff-year=2010", "car.tiering.initial-delay-ms=3600000",
+        "car.tiering.batch-size=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CarTieringIntegrationTest {
+    private static final String END_POINT_PATH = "/cars";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CarTieringJob tieringJob;
+
+    @BeforeEach
+    public void archive() {
+        tieringJob.run();
+    }
+
+    @Test
+    public void shouldMoveCarsOlderThanCutoffToArchive() {
+        assertEquals(5, count("cars"));
+        assertEquals(2, count("cars_archive"));
+    }
+
+    @Test
+    public void getAllShouldReturnCarsFromBothTiers() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.length()").value(7));
+
+        mockMvc.perform(get(END_POINT_PATH + "?fields=carId"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.length()").value(7));
+    }
+
+    @Test
+    public void getAllByYearShouldSkipArchiveForRecentRanges() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/filter?from=2014&to=2019"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(maxStatements(1))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    public void getAllByYearShouldReadArchiveForOldRanges() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/filter?from=2000&to=2015"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[1].model").value("Panda"));
+    }
+
+    @Test
+    public void getByIdShouldFindArchivedCar() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH + "/3"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.model").value("Panda"));
+    }
+
+    @Test
+    public void updateCarShouldMoveArchivedCarBackWhenYearIsRecent() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new CarDto("Fiat", "Panda", Color.GREEN, 2022));
+
+        MvcResult result = mockMvc.perform(put(END_POINT_PATH + "/3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andReturn();
+
+        Car car = objectMapper.readValue(result.getResponse().getContentAsString(), Car.class);
+        assertEquals(3, car.getCarId());
+        assertEquals(6, count("cars"));
+        assertEquals(1, count("cars_archive"));
+        mockMvc.perform(get(END_POINT_PATH + "/filter?from=2022&to=2022"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$[0].color").value("GREEN"));
+    }
+
+    @Test
+    public void updateCarShouldMoveOnlyThatCarBack() throws Exception {
+        jdbcTemplate.update("INSERT INTO cars_archive (car_id, brand, model, color, production_year) " +
+                "VALUES (100, 'Skoda', 'Octavia', 'RED', 2015)");
+        String requestBody = objectMapper.writeValueAsString(new CarDto("Fiat", "Panda", Color.GREEN, 2022));
+
+        mockMvc.perform(put(END_POINT_PATH + "/3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget());
+
+        assertEquals(6, count("cars"));
+        assertEquals(2, count("cars_archive"));
+    }
+
+    @Test
+    public void updateAllMatchingShouldMoveOnlyMatchedCarsBack() throws Exception {
+        jdbcTemplate.update("INSERT INTO cars_archive (car_id, brand, model, color, production_year) " +
+                "VALUES (100, 'Skoda', 'Octavia', 'RED', 2015)");
+
+        mockMvc.perform(patch(END_POINT_PATH + "?brand=Fiat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productionYear\":2020}"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertEquals(1, count("cars_archive"));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cars WHERE brand = 'Fiat' AND production_year = 2020", Integer.class));
+    }
+
+    @Test
+    public void tieringJobShouldMoveCarsNoLongerOlderThanCutoffBack() {
+        jdbcTemplate.update("INSERT INTO cars_archive (car_id, brand, model, color, production_year) " +
+                "VALUES (100, 'Skoda', 'Octavia', 'RED', 2015), (101, 'Skoda', 'Fabia', 'RED', 2016)");
+
+        tieringJob.run();
+
+        assertEquals(7, count("cars"));
+        assertEquals(2, count("cars_archive"));
+    }
+
+    @Test
+    public void deleteCarShouldDeleteArchivedCar() throws Exception {
+        mockMvc.perform(delete(END_POINT_PATH + "/7"))
+                .andExpect(status().isNoContent())
+                .andExpect(withinSqlBudget());
+
+        assertEquals(1, count("cars_archive"));
+        mockMvc.perform(get(END_POINT_PATH + "/7"))
+                .andExpect(status().isNotFound())
+                .andExpect(withinSqlBudget());
+    }
+
+    @Test
+    public void updateAllMatchingShouldPatchBothTiers() throws Exception {
+        mockMvc.perform(patch(END_POINT_PATH + "?brand=Fiat")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"color\":\"BLUE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cars_archive WHERE color = 'BLUE'", Integer.class));
+    }
+
+    @Test
+    public void deleteAllMatchingShouldDeleteFromBothTiers() throws Exception {
+        mockMvc.perform(delete(END_POINT_PATH + "?brand=Fiat"))
+                .andExpect(status().isOk())
+                .andExpect(withinSqlBudget())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertEquals(0, count("cars_archive"));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+}
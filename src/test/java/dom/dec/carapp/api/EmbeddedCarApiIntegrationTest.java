@@ -0,0 +1,45 @@
+package dom.dec.carapp.api;
+
+import dom.dec.carapp.config.EmbeddedStorageConfig;
+import dom.dec.carapp.service.CarChangedEvent;
+import dom.dec.carapp.storage.CarStore;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+
+/**
+ * Runs every API scenario against the embedded store instead of H2.
+ */
+@SpringBootTest(properties = "car.embedded.directory=target/embedded-api-test-${random.uuid}")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class EmbeddedCarApiIntegrationTest extends CarApiIntegrationTest {
+
+    @Autowired
+    private CarStore store;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @AfterEach
+    public void reset() {
+        store.truncate();
+        try {
+            store.insertAll(EmbeddedStorageConfig.readSeed(new ClassPathResource("db/embedded/cars.csv")));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        eventPublisher.publishEvent(CarChangedEvent.bulk());
+    }
+
+    @Override
+    protected long batchQueryStatements() {
+        return 0;
+    }
+}
@@ -0,0 +1,67 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.validation.CarDtoValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CarDtoValidationBenchmark {
+    private final CarDto validCar = new CarDto("Audi", "A4", Color.GREEN, 2020);
+    private final CarDto invalidCar = new CarDto("", "", null, -1);
+
+    private Validator standardValidator;
+    private CarDtoValidator compiledValidator;
+
+    @Setup
+    public void setUp() {
+        standardValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        compiledValidator = new CarDtoValidator();
+    }
+
+    @Benchmark
+    public Object standardValid() {
+        return standardValidator.validate(validCar);
+    }
+
+    @Benchmark
+    public Object compiledValid() {
+        return compiledValidator.messages(validCar);
+    }
+
+    @Benchmark
+    public Object standardInvalid() {
+        return standardValidator.validate(invalidCar);
+    }
+
+    @Benchmark
+    public Object compiledInvalid() {
+        return compiledValidator.messages(invalidCar);
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CarDtoValidationBenchmark.class.getSimpleName())
+                .forks(0)
+                .addProfiler("gc")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,130 @@
+package dom.dec.carapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.api.CarJsonCache;
+import dom.dec.carapp.api.CarJsonHttpMessageConverter;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a {@code List<Car>} response body the way {@code ResponseEntity<List<Car>>} is written by default, with
+ * Jackson, against assembling it from cached per-car bodies, when every body is cached and when none is. The body
+ * goes to a sink that only counts bytes, so the numbers cover serialization alone.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CarJsonCacheBenchmark {
+    private static final Type CAR_LIST = new ParameterizedTypeReference<List<Car>>() {
+    }.getType();
+    private static final String[] BRANDS = {"Alfa Romeo", "Volvo", "Fiat", "Audi", "Toyota", "BMW"};
+
+    @Param({"100", "10000"})
+    public int cars;
+
+    private List<Car> fleet;
+    private MappingJackson2HttpMessageConverter jackson;
+    private CarJsonHttpMessageConverter cached;
+    private CarJsonHttpMessageConverter uncached;
+    private CountingOutputMessage sink = new CountingOutputMessage();
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        fleet = new ArrayList<>(cars);
+        for (int i = 1; i <= cars; i++) {
+            Car car = new Car(BRANDS[i % BRANDS.length], "Model " + i % 50, Color.values()[i % Color.values().length],
+                    1990 + i % 33);
+            car.setCarId(i);
+            fleet.add(car);
+        }
+
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        cached = new CarJsonHttpMessageConverter(new CarJsonCache(objectMapper, Long.MAX_VALUE));
+        cached.write(fleet, CAR_LIST, MediaType.APPLICATION_JSON, sink);
+        sink.reset();
+        uncached = new CarJsonHttpMessageConverter(new CarJsonCache(objectMapper, 0));
+    }
+
+    @Benchmark
+    public long jackson() throws IOException {
+        jackson.write(fleet, CAR_LIST, MediaType.APPLICATION_JSON, sink);
+        return sink.reset();
+    }
+
+    @Benchmark
+    public long cachedBodies() throws IOException {
+        cached.write(fleet, CAR_LIST, MediaType.APPLICATION_JSON, sink);
+        return sink.reset();
+    }
+
+    @Benchmark
+    public long cacheMisses() throws IOException {
+        uncached.write(fleet, CAR_LIST, MediaType.APPLICATION_JSON, sink);
+        return sink.reset();
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CarJsonCacheBenchmark.class.getSimpleName())
+                .forks(0)
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static class CountingOutputMessage extends OutputStream implements HttpOutputMessage {
+        private HttpHeaders headers = new HttpHeaders();
+        private long count;
+
+        @Override
+        public OutputStream getBody() {
+            return this;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long reset() {
+            long written = count;
+            count = 0;
+            headers.clear();
+            return written;
+        }
+    }
+}
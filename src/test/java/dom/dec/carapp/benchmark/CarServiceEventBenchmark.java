@@ -0,0 +1,155 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarBatchDto;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.monitoring.CarServiceEventInterceptor;
+import dom.dec.carapp.service.CarService;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JFR interceptor on a CarService call that does no I/O: plain call, Spring proxy without advice,
+ * proxy with the event interceptor while no recording is running, and the same while recording.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CarServiceEventBenchmark {
+    private CarService direct;
+    private CarService proxied;
+    private CarService withEvents;
+    private Recording recording;
+
+    @Param({"false", "true"})
+    public boolean recordingOn;
+
+    @Setup
+    public void setUp() {
+        direct = new StubCarService();
+        proxied = (CarService) new ProxyFactory(direct).getProxy();
+        ProxyFactory factory = new ProxyFactory(direct);
+        factory.addAdvice(new CarServiceEventInterceptor());
+        withEvents = (CarService) factory.getProxy();
+
+        if (recordingOn) {
+            recording = new Recording();
+            recording.enable("dom.dec.carapp.CarService");
+            recording.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public Object direct() {
+        return direct.findById(42);
+    }
+
+    @Benchmark
+    public Object proxyWithoutAdvice() {
+        return proxied.findById(42);
+    }
+
+    @Benchmark
+    public Object proxyWithEventInterceptor() {
+        return withEvents.findById(42);
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CarServiceEventBenchmark.class.getSimpleName())
+                .forks(0)
+                .addProfiler("gc")
+                .build();
+
+        new Runner(options).run();
+    }
+
+    private static class StubCarService implements CarService {
+        private final Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+
+        @Override
+        public List<Car> findAll() {
+            return List.of(car);
+        }
+
+        @Override
+        public Car findById(long id) {
+            return car;
+        }
+
+        @Override
+        public CarBatchDto findAllByIds(List<Long> ids) {
+            return new CarBatchDto(List.of(car), List.of());
+        }
+
+        @Override
+        public Car saveCar(CarDto carDto) {
+            return car;
+        }
+
+        @Override
+        public List<Car> findAllByYear(long from, long to) {
+            return List.of(car);
+        }
+
+        @Override
+        public OptionalLong findNextProductionYear(long after, long maxYear) {
+            return OptionalLong.empty();
+        }
+
+        @Override
+        public CarProjectionDto findAll(List<String> fields) {
+            return new CarProjectionDto(fields, List.of());
+        }
+
+        @Override
+        public CarProjectionDto findAllByYear(long from, long to, List<String> fields) {
+            return new CarProjectionDto(fields, List.of());
+        }
+
+        @Override
+        public Car updateCar(CarDto newCar, long id) {
+            return car;
+        }
+
+        @Override
+        public void deleteCar(long id) {
+        }
+
+        @Override
+        public long updateAllMatching(CarFilterDto filter, CarPatchDto patch, boolean dryRun) {
+            return 0;
+        }
+
+        @Override
+        public long deleteAllMatching(CarFilterDto filter, boolean dryRun) {
+            return 0;
+        }
+    }
+}
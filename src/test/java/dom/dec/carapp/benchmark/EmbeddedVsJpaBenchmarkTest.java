@@ -0,0 +1,120 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.service.CarService;
+import dom.dec.carapp.service.EmbeddedCarServiceImpl;
+import dom.dec.carapp.storage.CarStore;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the embedded store against the JPA backend through the same {@link CarService} contract. The JPA
+ * side runs on the in-memory test database, so its writes skip the disk entirely while every embedded write is
+ * forced to the log; concurrent embedded writers share those syncs through group commit.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class EmbeddedVsJpaBenchmarkTest {
+    private static final long DURATION_MILLIS = 3_000;
+    private static final int FLEET_SIZE = 5_000;
+
+    @Autowired
+    private CarService jpaCarService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private Flyway flyway;
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void compareEmbeddedStoreWithJpa() throws Exception {
+        try (CarStore store = CarStore.open(directory, true, TimeUnit.MICROSECONDS.toNanos(200))) {
+            CarService embeddedCarService = new EmbeddedCarServiceImpl(store, eventPublisher);
+            for (int i = 0; i < FLEET_SIZE; i++) {
+                jpaCarService.saveCar(randomCar());
+                embeddedCarService.saveCar(randomCar());
+            }
+
+            compare("findById", 8, jpaCarService, embeddedCarService, carService ->
+                    carService.findById(ThreadLocalRandom.current().nextLong(1, FLEET_SIZE)));
+            double yearQuerySpeedup = compare("findAllByYear", 8, jpaCarService, embeddedCarService, carService -> {
+                int from = 1990 + ThreadLocalRandom.current().nextInt(30);
+                carService.findAllByYear(from, from + 1);
+            });
+            compare("saveCar, 1 thread", 1, jpaCarService, embeddedCarService, carService -> carService.saveCar(randomCar()));
+            compare("saveCar, 8 threads", 8, jpaCarService, embeddedCarService, carService -> carService.saveCar(randomCar()));
+            compare("updateCar, 8 threads", 8, jpaCarService, embeddedCarService, carService ->
+                    carService.updateCar(randomCar(), ThreadLocalRandom.current().nextLong(1, FLEET_SIZE)));
+
+            System.out.printf("embedded group commit: %.1f frames per sync over %d syncs%n",
+                    store.getStatistics().getFramesPerCommit(), store.getStatistics().getCommits());
+            assertTrue(yearQuerySpeedup > 1);
+        }
+    }
+
+    /**
+     * Returns the embedded-to-JPA throughput ratio.
+     */
+    private double compare(String operation, int threads, CarService jpa, CarService embedded,
+                           Consumer<CarService> task) throws InterruptedException {
+        run(threads, jpa, task);
+        double jpaOps = run(threads, jpa, task);
+        run(threads, embedded, task);
+        double embeddedOps = run(threads, embedded, task);
+
+        System.out.printf("%s: %.0f ops/s JPA, %.0f ops/s embedded (%.1fx)%n",
+                operation, jpaOps, embeddedOps, embeddedOps / jpaOps);
+        return embeddedOps / jpaOps;
+    }
+
+    private static double run(int threads, CarService carService, Consumer<CarService> task) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    task.accept(carService);
+                    operations.increment();
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+        return operations.sum() * 1000.0 / DURATION_MILLIS;
+    }
+
+    private static CarDto randomCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new CarDto("Brand" + random.nextInt(40), "Model" + random.nextInt(400),
+                Color.values()[random.nextInt(Color.values().length)], 1990 + random.nextInt(35));
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+}
@@ -0,0 +1,77 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.repository.CarRepository;
+import dom.dec.carapp.service.FleetAnalyticsService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class FleetAnalyticsBenchmarkTest {
+    private static final int ROUNDS = 5;
+
+    @Value("${benchmark.fleet-size:1000000}")
+    private int fleetSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CarRepository carRepository;
+    @Autowired
+    private FleetAnalyticsService analyticsService;
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    public void compareYearHistogramWithJpaPath() {
+        jdbcTemplate.update("INSERT INTO cars (brand, model, color, production_year) " +
+                "SELECT 'Brand' || MOD(X, 40), 'Model' || MOD(X, 400), " +
+                "CASEWHEN(MOD(X, 2) = 0, 'RED', 'BLACK'), 1950 + MOD(X, 73) FROM SYSTEM_RANGE(1, ?)", fleetSize);
+        analyticsService.refresh();
+
+        Map<Long, Long> expected = null;
+        long jpaNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            expected = carRepository.findAll().stream()
+                    .collect(Collectors.groupingBy(Car::getProductionYear, TreeMap::new, Collectors.counting()));
+            jpaNanos = Math.min(jpaNanos, System.nanoTime() - start);
+        }
+
+        Map<Long, Long> actual = null;
+        long columnarNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS * 10; i++) {
+            long start = System.nanoTime();
+            actual = analyticsService.yearHistogram(1900, 9999);
+            columnarNanos = Math.min(columnarNanos, System.nanoTime() - start);
+        }
+
+        long rows = expected.values().stream().mapToLong(Long::longValue).sum();
+        System.out.printf("year histogram over %d cars: JPA %.1f ms (%.0f rows/s), columnar %.2f ms (%.0f rows/s)%n",
+                rows, jpaNanos / 1e6, rows / (jpaNanos / 1e9), columnarNanos / 1e6, rows / (columnarNanos / 1e9));
+
+        assertEquals(expected, actual);
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+        analyticsService.refresh();
+    }
+}
@@ -0,0 +1,194 @@
+package dom.dec.carapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.grpc.CarGrpcServer;
+import dom.dec.carapp.grpc.CarList;
+import dom.dec.carapp.grpc.CarsGrpc;
+import dom.dec.carapp.grpc.StreamByYearRequest;
+import dom.dec.carapp.grpc.YearRange;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same year range query over REST with JSON and over gRPC, unary and streamed, as seen by a caller that needs
+ * the cars as objects: payload size, client CPU per call including parsing, and throughput with concurrent callers.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"car.grpc.enabled=true", "car.grpc.port=0", "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+class GrpcVsRestBenchmarkTest {
+    private static final int WARMUP_CALLS = 200;
+    private static final int CALLS = 400;
+    private static final int CLIENTS = 8;
+    private static final long FIRST_YEAR = 1960;
+    private static final long YEARS_PER_CALL = 5;
+
+    @Value("${benchmark.fleet-size:50000}")
+    private int fleetSize;
+
+    @LocalServerPort
+    private int httpPort;
+    @Autowired
+    private CarGrpcServer grpcServer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Flyway flyway;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void compareRestAndGrpc() throws Exception {
+        jdbcTemplate.update("INSERT INTO cars (brand, model, color, production_year) " +
+                "SELECT 'Brand' || MOD(X, 40), 'Model' || MOD(X, 400), " +
+                "CASEWHEN(MOD(X, 2) = 0, 'RED', 'BLACK'), 1950 + MOD(X, 73) FROM SYSTEM_RANGE(1, ?)", fleetSize);
+
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort())
+                .usePlaintext().maxInboundMessageSize(64 * 1024 * 1024).build();
+        CarsGrpc.CarsBlockingStub stub = CarsGrpc.newBlockingStub(channel);
+
+        try {
+            Call rest = client -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort +
+                        "/cars/filter?from=" + from(client) + "&to=" + to(client))).build();
+                byte[] body = http.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+                Car[] cars = objectMapper.readValue(body, Car[].class);
+                return new long[]{cars.length, body.length};
+            };
+            Call unary = client -> {
+                CarList cars = stub.findAllByYear(range(client));
+                return new long[]{cars.getCarsCount(), cars.getSerializedSize()};
+            };
+            Call streamed = client -> {
+                Iterator<CarList> chunks = stub.streamByYear(StreamByYearRequest.newBuilder().setRange(range(client)).build());
+                long count = 0;
+                long bytes = 0;
+                while (chunks.hasNext()) {
+                    CarList chunk = chunks.next();
+                    count += chunk.getCarsCount();
+                    bytes += chunk.getSerializedSize();
+                }
+                return new long[]{count, bytes};
+            };
+
+            Result restResult = measure(rest);
+            Result unaryResult = measure(unary);
+            Result streamedResult = measure(streamed);
+
+            System.out.printf("%d cars per call on the measured window%n", restResult.cars);
+            report("REST JSON", restResult, restResult);
+            report("gRPC unary", unaryResult, restResult);
+            report("gRPC stream", streamedResult, restResult);
+
+            assertEquals(restResult.cars, unaryResult.cars);
+            assertEquals(restResult.cars, streamedResult.cars);
+            assertTrue(unaryResult.bytes < restResult.bytes);
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    private Result measure(Call call) throws Exception {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run(i % CLIENTS);
+        }
+
+        long[] first = call.run(0);
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < CALLS / 4; i++) {
+            call.run(0);
+        }
+        long cpuPerCall = (threads.getCurrentThreadCpuTime() - cpuStart) / (CALLS / 4);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicLong remaining = new AtomicLong(CALLS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            int client = i;
+            futures.add(clients.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    call.run(client);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double callsPerSecond = CALLS / ((System.nanoTime() - start) / 1e9);
+        clients.shutdown();
+
+        return new Result(first[0], first[1], cpuPerCall, callsPerSecond);
+    }
+
+    /**
+     * Each client asks for its own year window, so the REST side cannot share loads between identical concurrent
+     * queries and both protocols do one database load per call.
+     */
+    private static long from(int client) {
+        return FIRST_YEAR + (long) client * YEARS_PER_CALL;
+    }
+
+    private static long to(int client) {
+        return from(client) + YEARS_PER_CALL - 1;
+    }
+
+    private static YearRange range(int client) {
+        return YearRange.newBuilder().setFrom(from(client)).setTo(to(client)).build();
+    }
+
+    private static void report(String name, Result result, Result baseline) {
+        System.out.printf("%-12s %9d bytes (%.2fx), client CPU %.2f ms/call (%.2fx), %.0f calls/s with %d clients (%.2fx)%n",
+                name, result.bytes, (double) result.bytes / baseline.bytes,
+                result.cpuPerCall / 1e6, (double) result.cpuPerCall / baseline.cpuPerCall,
+                result.callsPerSecond, CLIENTS, result.callsPerSecond / baseline.callsPerSecond);
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    private interface Call {
+        /**
+         * Returns the number of cars and the payload size in bytes.
+         */
+        long[] run(int client) throws Exception;
+    }
+
+    private record Result(long cars, long bytes, long cpuPerCall, double callsPerSecond) {
+    }
+}
@@ -0,0 +1,79 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.exception.ResourceNotFoundException;
+import dom.dec.carapp.service.CarIdIndex;
+import dom.dec.carapp.service.CarService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class MissingCarBenchmarkTest {
+    private static final int THREADS = 8;
+    private static final long DURATION_MILLIS = 3_000;
+    private static final int FIRST_MISSING_ID = 1_000;
+
+    @Autowired
+    private CarService carService;
+    @Autowired
+    private CarIdIndex idIndex;
+
+    @Test
+    public void compareMissHeavyDeletesWithAndWithoutIdIndex() throws Exception {
+        idIndex.setEnabled(false);
+        run();
+        double withoutIndex = run();
+
+        idIndex.setEnabled(true);
+        run();
+        double withIndex = run();
+
+        System.out.printf("miss-heavy DELETE workload: %.0f ops/s without id index, %.0f ops/s with id index (%.1fx)%n",
+                withoutIndex, withIndex, withIndex / withoutIndex);
+
+        assertTrue(withIndex > withoutIndex);
+    }
+
+    private double run() throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.currentTimeMillis() < deadline) {
+                    long id = FIRST_MISSING_ID + random.nextInt(1_000_000);
+                    try {
+                        carService.deleteCar(id);
+                    } catch (ResourceNotFoundException e) {
+                        // expected for every probe
+                    }
+                    operations.increment();
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+        return operations.sum() * 1000.0 / DURATION_MILLIS;
+    }
+
+    @AfterEach
+    public void reset() {
+        idIndex.setEnabled(true);
+    }
+}
@@ -0,0 +1,86 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.dto.SnapshotDto;
+import dom.dec.carapp.service.SnapshotRestorer;
+import dom.dec.carapp.service.SnapshotServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snapshot size and duration, warm restart and recovery from the latest snapshot for a multi-million row fleet in a
+ * file database tuned like the durable profile.
+ */
+@Tag("benchmark")
+class SnapshotRecoveryBenchmarkTest {
+    private static final int FLEET_SIZE = 5_000_000;
+    private static final String DB_NAME = "carsDb";
+    private static final String SETTINGS = ";CACHE_SIZE=65536;PAGE_SIZE=16384;WRITE_DELAY=500";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void measureSnapshotWarmRestartAndRecovery() {
+        Path primaryDir = tempDir.resolve("primary");
+        Path snapshotDir = tempDir.resolve("snapshots");
+        Path recoveredDir = tempDir.resolve("recovered");
+        SnapshotDto snapshot;
+
+        SingleConnectionDataSource primary = open(primaryDir);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+            long seedStart = System.nanoTime();
+            seed(jdbcTemplate);
+            System.out.printf("seeded %d rows in %d ms%n", FLEET_SIZE, (System.nanoTime() - seedStart) / 1_000_000);
+
+            snapshot = new SnapshotServiceImpl(jdbcTemplate, snapshotDir.toString()).createSnapshot();
+        } finally {
+            primary.destroy();
+        }
+
+        long warmStart = System.nanoTime();
+        SingleConnectionDataSource reopened = open(primaryDir);
+        long warmRows = count(reopened);
+        long warmMillis = (System.nanoTime() - warmStart) / 1_000_000;
+        reopened.destroy();
+
+        SnapshotRestorer restorer = new SnapshotRestorer(recoveredDir, DB_NAME, snapshotDir);
+        long recoveryStart = System.nanoTime();
+        Optional<Path> restored = restorer.restoreIfAbsent(SnapshotRestorer.LATEST);
+        SingleConnectionDataSource recovered = open(recoveredDir);
+        long recoveredRows = count(recovered);
+        long recoveryMillis = (System.nanoTime() - recoveryStart) / 1_000_000;
+        recovered.destroy();
+
+        System.out.printf("snapshot: %d bytes in %d ms, warm restart: %d ms, recovery: %d ms (%d rows)%n",
+                snapshot.getSizeBytes(), snapshot.getDurationMillis(), warmMillis, recoveryMillis, recoveredRows);
+        assertTrue(restored.isPresent());
+        assertEquals(FLEET_SIZE, warmRows);
+        assertEquals(FLEET_SIZE, recoveredRows);
+    }
+
+    private SingleConnectionDataSource open(Path directory) {
+        String url = "jdbc:h2:file:" + directory.resolve(DB_NAME).toAbsolutePath() + SETTINGS;
+        return new SingleConnectionDataSource(url, "sa", "", true);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE cars (car_id INT AUTO_INCREMENT PRIMARY KEY, brand VARCHAR(255) NOT NULL, " +
+                "model VARCHAR(255) NOT NULL, color VARCHAR(255) NOT NULL, production_year INT)");
+        jdbcTemplate.update("INSERT INTO cars (brand, model, color, production_year) " +
+                "SELECT 'Brand' || MOD(X, 50), 'Model' || MOD(X, 500), 'RED', 1990 + MOD(X, 35) FROM SYSTEM_RANGE(1, ?)", FLEET_SIZE);
+    }
+
+    private long count(SingleConnectionDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM cars", Long.class);
+    }
+}
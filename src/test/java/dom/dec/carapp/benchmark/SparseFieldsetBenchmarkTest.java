@@ -0,0 +1,84 @@
+package dom.dec.carapp.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsetBenchmarkTest {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    @Value("${benchmark.fleet-size:100000}")
+    private int fleetSize;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Flyway flyway;
+
+    private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void compareFullAndSparseListings() throws Exception {
+        jdbcTemplate.update("INSERT INTO cars (brand, model, color, production_year) " +
+                "SELECT 'Brand' || MOD(X, 40), 'Model' || MOD(X, 400), " +
+                "CASEWHEN(MOD(X, 2) = 0, 'RED', 'BLACK'), 1950 + MOD(X, 73) FROM SYSTEM_RANGE(1, ?)", fleetSize);
+
+        long[] full = measure("/cars");
+        long[] sparse = measure("/cars?fields=carId,brand");
+
+        System.out.printf("listing %d cars: full %d bytes, %.1f ms CPU; fields=carId,brand %d bytes, %.1f ms CPU " +
+                        "(%.1fx fewer bytes, %.1fx less CPU)%n",
+                fleetSize, full[0], full[1] / 1e6, sparse[0], sparse[1] / 1e6,
+                (double) full[0] / sparse[0], (double) full[1] / sparse[1]);
+
+        assertTrue(sparse[0] < full[0]);
+    }
+
+    /**
+     * Response size and the best request-thread CPU time; MockMvc handles the request on the calling thread, so
+     * the thread CPU clock covers query, mapping and serialization.
+     */
+    private long[] measure(String uri) throws Exception {
+        long bytes = 0;
+        long bestCpu = Long.MAX_VALUE;
+        for (int i = 0; i < WARMUP_ROUNDS + ROUNDS; i++) {
+            long start = threads.getCurrentThreadCpuTime();
+            bytes = mockMvc.perform(get(uri))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray().length;
+            long cpu = threads.getCurrentThreadCpuTime() - start;
+            if (i >= WARMUP_ROUNDS) {
+                bestCpu = Math.min(bestCpu, cpu);
+            }
+        }
+        return new long[]{bytes, bestCpu};
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+}
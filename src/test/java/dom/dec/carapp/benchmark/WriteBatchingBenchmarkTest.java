@@ -0,0 +1,136 @@
+package dom.dec.carapp.benchmark;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.repository.CarRepository;
+import dom.dec.carapp.service.CarArchive;
+import dom.dec.carapp.service.CarCache;
+import dom.dec.carapp.service.CarIdIndex;
+import dom.dec.carapp.service.CarService;
+import dom.dec.carapp.service.CarServiceImpl;
+import dom.dec.carapp.service.CarWriteBatcher;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of single-car writes with and without group commit, through the same {@link CarService}. The batched
+ * service shares the application's repository, caches and index, and only differs in its {@link CarWriteBatcher}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class WriteBatchingBenchmarkTest {
+    private static final long DURATION_MILLIS = 3_000;
+    private static final int FLEET_SIZE = 5_000;
+    private static final int HOT_CARS = 50;
+
+    @Autowired
+    private CarService carService;
+    @Autowired
+    private CarRepository repository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CarIdIndex idIndex;
+    @Autowired
+    private CarCache carCache;
+    @Autowired
+    private CarArchive archive;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    public void compareBatchedWithPerRequestWrites() throws Exception {
+        CarWriteBatcher writeBatcher = new CarWriteBatcher(jdbcTemplate, transactionTemplate, true, 200, 128,
+                5_000, 2);
+        writeBatcher.start();
+        try {
+            CarService batchedCarService = new CarServiceImpl(repository, eventPublisher, idIndex, carCache, archive,
+                    writeBatcher);
+            for (int i = 0; i < FLEET_SIZE; i++) {
+                carService.saveCar(randomCar());
+            }
+
+            compare("saveCar, 1 thread", 1, carService, batchedCarService, service -> service.saveCar(randomCar()));
+            double saveSpeedup = compare("saveCar, 32 threads", 32, carService, batchedCarService, service ->
+                    service.saveCar(randomCar()));
+            compare("updateCar, 32 threads", 32, carService, batchedCarService, service ->
+                    service.updateCar(randomCar(), ThreadLocalRandom.current().nextLong(1, FLEET_SIZE)));
+            compare("updateCar of " + HOT_CARS + " hot cars, 32 threads", 32, carService, batchedCarService, service ->
+                    service.updateCar(randomCar(), ThreadLocalRandom.current().nextLong(1, HOT_CARS + 1)));
+
+            System.out.printf("group commit: %.1f writes per transaction over %d transactions%n",
+                    writeBatcher.getWritesPerBatch(), writeBatcher.getBatches());
+            assertTrue(saveSpeedup > 1);
+        } finally {
+            writeBatcher.shutdown();
+        }
+    }
+
+    /**
+     * Returns the batched-to-unbatched throughput ratio.
+     */
+    private double compare(String operation, int threads, CarService unbatched, CarService batched,
+                           Consumer<CarService> task) throws InterruptedException {
+        run(threads, unbatched, task);
+        double unbatchedOps = run(threads, unbatched, task);
+        run(threads, batched, task);
+        double batchedOps = run(threads, batched, task);
+
+        System.out.printf("%s: %.0f ops/s per request, %.0f ops/s batched (%.1fx)%n",
+                operation, unbatchedOps, batchedOps, batchedOps / unbatchedOps);
+        return batchedOps / unbatchedOps;
+    }
+
+    private static double run(int threads, CarService carService, Consumer<CarService> task) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    task.accept(carService);
+                    operations.increment();
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+        return operations.sum() * 1000.0 / DURATION_MILLIS;
+    }
+
+    private static CarDto randomCar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new CarDto("Brand" + random.nextInt(40), "Model" + random.nextInt(400),
+                Color.values()[random.nextInt(Color.values().length)], 1990 + random.nextInt(35));
+    }
+
+    @AfterEach
+    public void reset() {
+        flyway.clean();
+        flyway.migrate();
+    }
+}
@@ -0,0 +1,137 @@
+package dom.dec.carapp.grpc;
+
+import com.google.protobuf.Empty;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"car.grpc.enabled=true", "car.grpc.port=0"})
+@ActiveProfiles("test")
+class CarGrpcServiceIntegrationTest {
+
+    @Autowired
+    private CarGrpcServer server;
+    @Autowired
+    private Flyway flyway;
+
+    private ManagedChannel channel;
+    private CarsGrpc.CarsBlockingStub cars;
+
+    @BeforeEach
+    public void connect() {
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        cars = CarsGrpc.newBlockingStub(channel);
+    }
+
+    @Test
+    public void findAllShouldReturnAllCars() {
+        CarList all = cars.findAll(Empty.getDefaultInstance());
+
+        assertEquals(7, all.getCarsCount());
+        assertEquals("Alfa Romeo", all.getCars(0).getBrand());
+        assertEquals(CarColor.RED, all.getCars(0).getColor());
+    }
+
+    @Test
+    public void findAllByYearShouldReturnCarsInRange() {
+        CarList found = cars.findAllByYear(YearRange.newBuilder().setFrom(2019).setTo(2014).build());
+
+        assertEquals(2, found.getCarsCount());
+        assertEquals("Volvo", found.getCars(0).getBrand());
+        assertEquals("Audi", found.getCars(1).getBrand());
+    }
+
+    @Test
+    public void findAllByYearShouldRejectYearsBefore1900() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> cars.findAllByYear(YearRange.newBuilder().setFrom(1899).setTo(2000).build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertTrue(e.getStatus().getDescription().contains("From param cannot be less than 1900"));
+    }
+
+    @Test
+    public void streamByYearShouldSendCarsInChunks() {
+        Iterator<CarList> chunks = cars.streamByYear(StreamByYearRequest.newBuilder()
+                .setRange(YearRange.newBuilder().setFrom(2000).setTo(2030))
+                .setChunkSize(3)
+                .build());
+
+        List<Integer> sizes = new ArrayList<>();
+        chunks.forEachRemaining(chunk -> sizes.add(chunk.getCarsCount()));
+
+        assertEquals(List.of(3, 3, 1), sizes);
+    }
+
+    @Test
+    public void streamByYearShouldCompleteForUnboundedRanges() {
+        List<Integer> sizes = new ArrayList<>();
+        cars.streamByYear(StreamByYearRequest.newBuilder()
+                        .setRange(YearRange.newBuilder().setFrom(1900).setTo(Long.MAX_VALUE))
+                        .build())
+                .forEachRemaining(chunk -> sizes.add(chunk.getCarsCount()));
+
+        assertEquals(List.of(7), sizes);
+        assertFalse(cars.streamByYear(StreamByYearRequest.newBuilder()
+                        .setRange(YearRange.newBuilder().setFrom(3000).setTo(Long.MAX_VALUE))
+                        .build())
+                .hasNext());
+    }
+
+    @Test
+    public void saveUpdateAndDeleteShouldChangeCar() {
+        CarMessage saved = cars.save(CarData.newBuilder()
+                .setBrand("Honda").setModel("Civic").setColor(CarColor.BLUE).setProductionYear(2019).build());
+        assertEquals(8, saved.getCarId());
+
+        CarMessage updated = cars.update(UpdateCarRequest.newBuilder()
+                .setCarId(saved.getCarId())
+                .setCar(CarData.newBuilder().setBrand("Honda").setModel("Accord").setColor(CarColor.BLACK).setProductionYear(2020))
+                .build());
+        assertEquals("Accord", updated.getModel());
+        assertEquals(CarColor.BLACK, updated.getColor());
+
+        cars.delete(CarId.newBuilder().setCarId(saved.getCarId()).build());
+        assertEquals(7, cars.findAll(Empty.getDefaultInstance()).getCarsCount());
+    }
+
+    @Test
+    public void saveShouldRejectInvalidCar() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> cars.save(CarData.newBuilder()
+                .setBrand("H").setModel("Civic").setProductionYear(2019).build()));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertTrue(e.getStatus().getDescription().contains("Brand cannot be less than 2 characters"));
+        assertTrue(e.getStatus().getDescription().contains("Color cannot be null"));
+    }
+
+    @Test
+    public void deleteShouldReturnNotFoundForMissingCar() {
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> cars.delete(CarId.newBuilder().setCarId(100).build()));
+
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+        assertEquals("Car not found with id : 100", e.getStatus().getDescription());
+    }
+
+    @AfterEach
+    public void reset() {
+        channel.shutdownNow();
+        flyway.clean();
+        flyway.migrate();
+    }
+}
@@ -0,0 +1,74 @@
+package dom.dec.carapp.loadtest;
+
+import dom.dec.carapp.CarApp;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a synthetic fleet and drives an open-loop request mix against the application.
+ * Run with {@code mvn test -Ploadtest}; tune with {@code -Dloadtest.fleet-size}, {@code -Dloadtest.rate},
+ * {@code -Dloadtest.duration-seconds}, {@code -Dloadtest.mix} and point at a running instance with
+ * {@code -Dloadtest.base-url}. Set {@code -Dloadtest.max-p99-ms} to fail the build on a latency regression.
+ */
+@Tag("loadtest")
+class CarAppLoadTest {
+
+    @Test
+    void runLoadTest() throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext app = null;
+
+        if (config.getBaseUrl() == null) {
+            app = new SpringApplicationBuilder(CarApp.class)
+                    .profiles("test")
+                    .properties("server.port=0", "spring.jpa.show-sql=false")
+                    .run();
+            config.setBaseUrl(URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port")));
+        }
+
+        try {
+            seed(config);
+
+            LoadTestReport report = LoadTestReport.of(config, new OpenLoopDriver(config).run());
+            report.write(config.getReport());
+            System.out.println("Load test report written to " + config.getReport().toAbsolutePath());
+
+            if (config.getMaxP99Millis() != null) {
+                for (Operation operation : config.getMix().keySet()) {
+                    assertTrue(report.p99Millis(operation) <= config.getMaxP99Millis(),
+                            operation + " p99 exceeded " + config.getMaxP99Millis() + " ms");
+                }
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private void seed(LoadTestConfig config) throws Exception {
+        if (config.getFleetSize() > 0) {
+            FleetGenerator generator = new FleetGenerator(config.getSeed());
+            HttpRequest request = HttpRequest.newBuilder(config.getBaseUrl().resolve("/cars/import"))
+                    .header("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> generator.csv(config.getFleetSize())))
+                    .build();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode(), response.body());
+        }
+
+        if (config.getMaxId() == 0) {
+            config.setMaxId(config.getFleetSize());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dom.dec.carapp.loadtest;
+
+import dom.dec.carapp.CarApp;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * p99 latency over the first minute of traffic after a deploy, with and without the startup warm-up. Each run starts
+ * the application in a fresh JVM, so no JIT work carries over between them, waits for the readiness probe like a load
+ * balancer would, and then drives the usual open-loop mix without a driver-side warm-up.
+ * Run with {@code mvn test -Ploadtest -Dtest=ColdStartLoadTest}; {@code -Dloadtest.first-minute-seconds} shortens
+ * the measured window, the other {@code -Dloadtest.*} settings apply as in {@link CarAppLoadTest}.
+ */
+@Tag("loadtest")
+class ColdStartLoadTest {
+    private static final long READY_TIMEOUT_SECONDS = 300;
+
+    @Test
+    void compareFirstMinuteWithAndWithoutWarmUp() throws Exception {
+        Histogram cold = firstMinute(false);
+        Histogram warmed = firstMinute(true);
+
+        System.out.printf("first-minute latency without warm-up: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                millis(cold.getValueAtPercentile(50)), millis(cold.getValueAtPercentile(99)), millis(cold.getMaxValue()));
+        System.out.printf("first-minute latency with warm-up:    p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                millis(warmed.getValueAtPercentile(50)), millis(warmed.getValueAtPercentile(99)), millis(warmed.getMaxValue()));
+    }
+
+    private Histogram firstMinute(boolean warmUp) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        config.setWarmupSeconds(0);
+        config.setDurationSeconds(Integer.getInteger("loadtest.first-minute-seconds", 60));
+        config.setMaxId(config.getFleetSize() + 7);
+
+        String label = warmUp ? "with-warmup" : "without-warmup";
+        int port = freePort();
+        Process app = start(config, port, warmUp, Paths.get("target/loadtest/cold-start-" + label + ".log"));
+        try {
+            config.setBaseUrl(URI.create("http://localhost:" + port));
+            long readyMillis = awaitReadiness(config.getBaseUrl(), app);
+            System.out.printf("%s: ready %d ms after launch%n", label, readyMillis);
+
+            Map<Operation, OpenLoopDriver.OperationResult> results = new OpenLoopDriver(config).run();
+            LoadTestReport.of(config, results).write(Paths.get("target/loadtest/cold-start-" + label + ".json"));
+
+            Histogram all = new Histogram(3);
+            results.values().forEach(result -> all.add(result.getLatencies()));
+            return all;
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Launches the application on the test class path with the fleet seeded by an extra Flyway migration, so the data
+     * is in place before the warm-up runs.
+     */
+    private Process start(LoadTestConfig config, int port, boolean warmUp, Path log) throws IOException {
+        Path seedDirectory = Files.createTempDirectory("cold-start-seed");
+        Files.writeString(seedDirectory.resolve("V1000__seed_fleet.sql"),
+                "INSERT INTO cars (brand, model, color, production_year) " +
+                        "SELECT 'Brand' || MOD(X, 40), 'Model' || MOD(X, 400), " +
+                        "CASEWHEN(MOD(X, 2) = 0, 'RED', 'BLACK'), YEAR(CURRENT_DATE) - MOD(X, 30) " +
+                        "FROM SYSTEM_RANGE(1, " + config.getFleetSize() + ");\n");
+        Files.createDirectories(log.getParent());
+
+        List<String> command = List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                CarApp.class.getName(),
+                "--spring.profiles.active=test",
+                "--server.port=" + port,
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.locations=classpath:db/migration,filesystem:" + seedDirectory.toAbsolutePath(),
+                "--car.warmup.enabled=" + warmUp);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static long awaitReadiness(URI baseUrl, Process app) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest probe = HttpRequest.newBuilder(baseUrl.resolve("/admin/readiness")).build();
+        long launched = app.info().startInstant().map(instant -> instant.toEpochMilli()).orElse(System.currentTimeMillis());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READY_TIMEOUT_SECONDS);
+
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                fail("Application exited with code " + app.exitValue() + " before becoming ready");
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.currentTimeMillis() - launched;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Application not ready after " + READY_TIMEOUT_SECONDS + " s");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
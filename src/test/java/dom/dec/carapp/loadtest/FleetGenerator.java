@@ -0,0 +1,127 @@
+package dom.dec.carapp.loadtest;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic fleet: brand popularity and color shares roughly follow European registration
+ * statistics and production years are skewed towards recent model years.
+ */
+public class FleetGenerator {
+    private static final String[] BRANDS = {"Volkswagen", "Toyota", "Skoda", "Ford", "Opel", "Renault", "BMW", "Audi",
+            "Mercedes-Benz", "Kia", "Hyundai", "Fiat", "Peugeot", "Volvo", "Alfa Romeo"};
+    private static final int[] BRAND_WEIGHTS = {16, 12, 10, 8, 7, 7, 6, 6, 6, 5, 5, 4, 4, 3, 1};
+    private static final String[][] MODELS = {
+            {"Golf", "Passat", "Polo", "Tiguan", "T-Roc"},
+            {"Corolla", "Yaris", "RAV4", "C-HR", "Camry"},
+            {"Octavia", "Fabia", "Superb", "Kodiaq", "Karoq"},
+            {"Focus", "Fiesta", "Kuga", "Mondeo", "Puma"},
+            {"Astra", "Corsa", "Insignia", "Mokka"},
+            {"Clio", "Megane", "Captur", "Kadjar"},
+            {"320d", "330i", "520d", "X3", "X5"},
+            {"A3", "A4", "A6", "Q5", "Q3"},
+            {"C200", "E220", "A180", "GLC"},
+            {"Ceed", "Sportage", "Rio", "Niro"},
+            {"i30", "Tucson", "i20", "Kona"},
+            {"Panda", "Punto", "500", "Tipo"},
+            {"208", "308", "3008", "2008"},
+            {"V40", "V60", "XC60", "XC90"},
+            {"Giulietta", "Giulia", "Stelvio"}
+    };
+    private static final Color[] COLORS = {Color.WHITE, Color.BLACK, Color.SILVER, Color.BLUE, Color.RED, Color.GREEN,
+            Color.YELLOW};
+    private static final int[] COLOR_WEIGHTS = {28, 22, 20, 12, 11, 4, 3};
+    private static final double MEAN_AGE_YEARS = 7.0;
+    private static final int MAX_AGE_YEARS = 70;
+
+    private final Random random;
+    private final int currentYear = Year.now().getValue();
+    private final int brandWeightTotal = total(BRAND_WEIGHTS);
+    private final int colorWeightTotal = total(COLOR_WEIGHTS);
+
+    public FleetGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public CarDto nextCar() {
+        int brand = pick(BRAND_WEIGHTS, brandWeightTotal);
+        String[] models = MODELS[brand];
+        Color color = COLORS[pick(COLOR_WEIGHTS, colorWeightTotal)];
+        int age = (int) Math.min(MAX_AGE_YEARS, -MEAN_AGE_YEARS * Math.log(1 - random.nextDouble()));
+
+        return new CarDto(BRANDS[brand], models[random.nextInt(models.length)], color, currentYear - age);
+    }
+
+    public String nextCsvRow() {
+        CarDto car = nextCar();
+        return car.getBrand() + ',' + car.getModel() + ',' + car.getColor() + ',' + car.getProductionYear() + '\n';
+    }
+
+    /**
+     * Streams {@code size} CSV rows with a header line, generating each row only when the reader asks for it.
+     */
+    public InputStream csv(long size) {
+        return new InputStream() {
+            private byte[] line = "brand,model,color,production_year\n".getBytes(StandardCharsets.UTF_8);
+            private int position;
+            private long remaining = size;
+
+            @Override
+            public int read() {
+                if (position == line.length && !nextLine()) {
+                    return -1;
+                }
+                return line[position++] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (position == line.length && !nextLine()) {
+                    return -1;
+                }
+
+                int copied = Math.min(length, line.length - position);
+                System.arraycopy(line, position, buffer, offset, copied);
+                position += copied;
+                return copied;
+            }
+
+            private boolean nextLine() {
+                if (remaining == 0) {
+                    return false;
+                }
+                remaining--;
+                line = nextCsvRow().getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                return true;
+            }
+        };
+    }
+
+    private int pick(int[] weights, int total) {
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static int total(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,114 @@
+package dom.dec.carapp.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties so the same run can be repeated in CI.
+ */
+public class LoadTestConfig {
+    private static final String PREFIX = "loadtest.";
+
+    private URI baseUrl;
+    private long fleetSize;
+    private long maxId;
+    private int ratePerSecond;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private Map<Operation, Integer> mix;
+    private Path report;
+    private Double maxP99Millis;
+    private long seed;
+
+    public static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig();
+        String baseUrl = property("base-url", "");
+        config.baseUrl = baseUrl.isBlank() ? null : URI.create(baseUrl);
+        config.fleetSize = Long.parseLong(property("fleet-size", "10000"));
+        config.maxId = Long.parseLong(property("max-id", "0"));
+        config.ratePerSecond = Integer.parseInt(property("rate", "200"));
+        config.warmupSeconds = Integer.parseInt(property("warmup-seconds", "5"));
+        config.durationSeconds = Integer.parseInt(property("duration-seconds", "30"));
+        config.mix = parseMix(property("mix", "list=2,filter=58,post=15,put=15,delete=10"));
+        config.report = Paths.get(property("report", "target/loadtest/report.json"));
+        String maxP99 = property("max-p99-ms", "");
+        config.maxP99Millis = maxP99.isBlank() ? null : Double.valueOf(maxP99);
+        config.seed = Long.parseLong(property("seed", "42"));
+        return config;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries must look like operation=weight: " + entry);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    public URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(URI baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public long getFleetSize() {
+        return fleetSize;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public Path getReport() {
+        return report;
+    }
+
+    public Double getMaxP99Millis() {
+        return maxP99Millis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,71 @@
+package dom.dec.carapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine-readable summary of a run: throughput, error count and latency percentiles (in milliseconds) per
+ * operation, so two runs can be diffed in CI.
+ */
+public class LoadTestReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> operations = new LinkedHashMap<>();
+
+    public static LoadTestReport of(LoadTestConfig config, Map<Operation, OpenLoopDriver.OperationResult> results) {
+        LoadTestReport report = new LoadTestReport();
+        report.settings.put("fleetSize", config.getFleetSize());
+        report.settings.put("ratePerSecond", config.getRatePerSecond());
+        report.settings.put("warmupSeconds", config.getWarmupSeconds());
+        report.settings.put("durationSeconds", config.getDurationSeconds());
+        report.settings.put("mix", config.getMix());
+        report.settings.put("seed", config.getSeed());
+
+        results.forEach((operation, result) -> {
+            Histogram latencies = result.getLatencies();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", latencies.getTotalCount());
+            summary.put("errors", result.getErrors());
+            summary.put("throughputPerSecond", (double) latencies.getTotalCount() / config.getDurationSeconds());
+            for (double percentile : PERCENTILES) {
+                summary.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                        : String.valueOf(percentile)), millis(latencies.getValueAtPercentile(percentile)));
+            }
+            summary.put("max", millis(latencies.getMaxValue()));
+            summary.put("mean", latencies.getMean() / 1000.0);
+            report.operations.put(operation.name().toLowerCase(), summary);
+        });
+        return report;
+    }
+
+    public double p99Millis(Operation operation) {
+        Map<String, Object> summary = operations.get(operation.name().toLowerCase());
+        return summary == null ? 0 : (double) summary.get("p99");
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+    }
+
+    public Map<String, Object> getSettings() {
+        return settings;
+    }
+
+    public Map<String, Map<String, Object>> getOperations() {
+        return operations;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
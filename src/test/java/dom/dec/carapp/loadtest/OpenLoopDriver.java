@@ -0,0 +1,192 @@
+package dom.dec.carapp.loadtest;
+
+import dom.dec.carapp.dto.CarDto;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Year;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop request generator: requests are scheduled at a fixed rate regardless of how fast the server answers and
+ * latency is measured from the intended send time, so a stalled server shows up in the percentiles instead of
+ * silently lowering the offered load (coordinated omission).
+ */
+public class OpenLoopDriver {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int RECENT_YEARS = 25;
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Random random;
+    private final FleetGenerator generator;
+    private final AtomicLong maxId;
+    private final Operation[] operations;
+    private final int[] weights;
+    private final int weightTotal;
+    private final int currentYear = Year.now().getValue();
+
+    public OpenLoopDriver(LoadTestConfig config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.generator = new FleetGenerator(config.getSeed() + 1);
+        this.maxId = new AtomicLong(Math.max(1, config.getMaxId()));
+        this.operations = config.getMix().keySet().toArray(new Operation[0]);
+        this.weights = config.getMix().values().stream().mapToInt(Integer::intValue).toArray();
+        this.weightTotal = config.getMix().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public Map<Operation, OperationResult> run() throws InterruptedException, TimeoutException {
+        Map<Operation, OperationResult> results = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            results.put(operation, new OperationResult());
+        }
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.getRatePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        Phaser inFlight = new Phaser(1);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick();
+            OperationResult result = results.get(operation);
+            boolean measured = intended >= measureFrom;
+
+            inFlight.register();
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        try {
+                            if (measured) {
+                                long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                                result.record(latency, error == null && isExpected(operation, response.statusCode()));
+                            }
+                            if (error == null && operation == Operation.POST) {
+                                trackCreatedId(response);
+                            }
+                        } finally {
+                            inFlight.arriveAndDeregister();
+                        }
+                    });
+        }
+
+        inFlight.awaitAdvanceInterruptibly(inFlight.arrive(), REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        return results;
+    }
+
+    private Operation pick() {
+        int value = random.nextInt(weightTotal);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private HttpRequest request(Operation operation) {
+        URI baseUrl = config.getBaseUrl();
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT);
+
+        switch (operation) {
+            case LIST:
+                return builder.uri(baseUrl.resolve("/cars")).GET().build();
+            case FILTER:
+                int from = currentYear - random.nextInt(RECENT_YEARS);
+                int to = from + random.nextInt(5);
+                return builder.uri(baseUrl.resolve("/cars/filter?from=" + from + "&to=" + to)).GET().build();
+            case POST:
+                return builder.uri(baseUrl.resolve("/cars"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(nextCar())))
+                        .build();
+            case PUT:
+                return builder.uri(baseUrl.resolve("/cars/" + randomId()))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(json(nextCar())))
+                        .build();
+            case DELETE:
+                return builder.uri(baseUrl.resolve("/cars/" + randomId())).DELETE().build();
+            default:
+                throw new IllegalStateException("Unsupported operation " + operation);
+        }
+    }
+
+    /**
+     * Updates and deletes pick ids at random, so hitting an already deleted car is part of the workload rather than a
+     * failure; the same goes for a year range without any cars.
+     */
+    private static boolean isExpected(Operation operation, int status) {
+        if (status == 404) {
+            return operation != Operation.POST && operation != Operation.LIST;
+        }
+        return status >= 200 && status < 300;
+    }
+
+    private void trackCreatedId(HttpResponse<?> response) {
+        response.headers().firstValue("Location").ifPresent(location -> {
+            long id = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+            maxId.accumulateAndGet(id, Math::max);
+        });
+    }
+
+    private long randomId() {
+        return 1 + (long) (random.nextDouble() * maxId.get());
+    }
+
+    private synchronized CarDto nextCar() {
+        return generator.nextCar();
+    }
+
+    private static String json(CarDto car) {
+        return "{\"brand\":\"" + car.getBrand() + "\",\"model\":\"" + car.getModel() + "\",\"color\":\""
+                + car.getColor() + "\",\"productionYear\":" + car.getProductionYear() + "}";
+    }
+
+    public static class OperationResult {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyMicros, boolean expected) {
+            latencies.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (!expected) {
+                errors.incrementAndGet();
+            }
+        }
+
+        public Histogram getLatencies() {
+            return latencies;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+    }
+}
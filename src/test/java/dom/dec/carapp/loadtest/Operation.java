@@ -0,0 +1,5 @@
+package dom.dec.carapp.loadtest;
+
+public enum Operation {
+    LIST, FILTER, POST, PUT, DELETE
+}
@@ -0,0 +1,54 @@
+package dom.dec.carapp.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MonitoredDataSourceTest {
+    private SqlLog sqlLog = new SqlLog(0.0, 200);
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource target = new DriverManagerDataSource("jdbc:h2:mem:monitoredDb;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(MonitoredDataSource.wrap(target, () -> sqlLog));
+        jdbcTemplate.execute("CREATE TABLE numbers (n INT)");
+        jdbcTemplate.batchUpdate("INSERT INTO numbers VALUES (?)", List.of(
+                new Object[]{1}, new Object[]{2}, new Object[]{3}, new Object[]{4}));
+    }
+
+    @Test
+    public void shouldCountStatementsAndFetchedRowsOfCurrentRequest() {
+        SqlStatistics statistics = SqlStatistics.begin();
+
+        jdbcTemplate.queryForList("SELECT n FROM numbers WHERE n > ?", Integer.class, 1);
+        jdbcTemplate.update("UPDATE numbers SET n = n + 1 WHERE n = ?", 4);
+
+        assertEquals(2, statistics.getStatements());
+        assertEquals(3, statistics.getRowsFetched());
+        assertEquals(statistics, SqlStatistics.end());
+    }
+
+    @Test
+    public void shouldNotCountStatementsOutsideRequest() {
+        jdbcTemplate.queryForList("SELECT n FROM numbers", Integer.class);
+
+        assertNull(SqlStatistics.current());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SqlStatistics.end();
+        jdbcTemplate.execute("DROP TABLE numbers");
+        sqlLog.shutdown();
+    }
+}
@@ -0,0 +1,57 @@
+package dom.dec.carapp.monitoring;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * MockMvc matchers that fail a test when a request issues more SQL than its endpoint declares with
+ * {@link SqlBudget}, or more than an explicit limit given by the test.
+ */
+public final class SqlBudgetMatchers {
+
+    private SqlBudgetMatchers() {
+    }
+
+    public static ResultMatcher withinSqlBudget() {
+        return result -> {
+            SqlStatistics statistics = statistics(result);
+            if (!(result.getHandler() instanceof HandlerMethod handler)
+                    || handler.getMethodAnnotation(SqlBudget.class) == null) {
+                fail("Handler " + result.getHandler() + " does not declare a @SqlBudget");
+                return;
+            }
+
+            SqlBudget budget = handler.getMethodAnnotation(SqlBudget.class);
+            assertTrue(!SqlBudgetInterceptor.exceeds(budget, statistics),
+                    handler.getShortLogMessage() + " exceeded its SQL budget (statements=" + budget.statements()
+                            + ", rows=" + budget.rows() + "): " + statistics);
+        };
+    }
+
+    public static ResultMatcher maxStatements(int statements) {
+        return result -> {
+            SqlStatistics statistics = statistics(result);
+            assertTrue(statistics.getStatements() <= statements,
+                    "Expected at most " + statements + " statements but was " + statistics);
+        };
+    }
+
+    public static ResultMatcher maxRowsFetched(long rows) {
+        return result -> {
+            SqlStatistics statistics = statistics(result);
+            assertTrue(statistics.getRowsFetched() <= rows,
+                    "Expected at most " + rows + " fetched rows but was " + statistics);
+        };
+    }
+
+    private static SqlStatistics statistics(MvcResult result) {
+        SqlStatistics statistics = (SqlStatistics) result.getRequest().getAttribute(SqlStatistics.ATTRIBUTE);
+        assertNotNull(statistics, "No SQL statistics recorded; is SqlBudgetInterceptor registered for this path?");
+        return statistics;
+    }
+}
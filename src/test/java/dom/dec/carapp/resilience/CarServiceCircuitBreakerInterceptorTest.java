@@ -0,0 +1,93 @@
+package dom.dec.carapp.resilience;
+
+import dom.dec.carapp.service.CarChangedEvent;
+import dom.dec.carapp.service.CarService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CarServiceCircuitBreakerInterceptorTest {
+    private CircuitBreaker breaker = new CircuitBreaker(100, Duration.ofSeconds(10));
+
+    @Test
+    public void shouldServeLastGoodResultWhenDatabaseFails() throws Throwable {
+        CarServiceCircuitBreakerInterceptor interceptor = interceptor(Duration.ofMinutes(1), 10);
+
+        assertEquals(List.of(1, 2), interceptor.invoke(findAllByYear(2000, List.of(1, 2))));
+
+        assertEquals(List.of(1, 2), interceptor.invoke(failingFindAllByYear(2000)));
+    }
+
+    @Test
+    public void shouldNotServeResultsOlderThanMaxStaleAge() throws Throwable {
+        CarServiceCircuitBreakerInterceptor interceptor = interceptor(Duration.ofMillis(50), 10);
+        interceptor.invoke(findAllByYear(2000, List.of(1, 2)));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(failingFindAllByYear(2000)));
+    }
+
+    @Test
+    public void shouldDropResultsWhenCarsChange() throws Throwable {
+        CarServiceCircuitBreakerInterceptor interceptor = interceptor(Duration.ofMinutes(1), 10);
+        interceptor.invoke(findAllByYear(2000, List.of(1, 2)));
+
+        interceptor.onCarChanged(CarChangedEvent.of(1));
+
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(failingFindAllByYear(2000)));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResultsOverMaxRows() throws Throwable {
+        CarServiceCircuitBreakerInterceptor interceptor = interceptor(Duration.ofMinutes(1), 5);
+        interceptor.invoke(findAllByYear(2000, List.of(1, 2)));
+        interceptor.invoke(findAllByYear(2001, List.of(3, 4)));
+        interceptor.invoke(failingFindAllByYear(2000));
+        interceptor.invoke(findAllByYear(2002, List.of(5, 6)));
+
+        assertEquals(List.of(1, 2), interceptor.invoke(failingFindAllByYear(2000)));
+        assertEquals(List.of(5, 6), interceptor.invoke(failingFindAllByYear(2002)));
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(failingFindAllByYear(2001)));
+    }
+
+    @Test
+    public void shouldNotKeepResultsLargerThanMaxRows() throws Throwable {
+        CarServiceCircuitBreakerInterceptor interceptor = interceptor(Duration.ofMinutes(1), 1);
+        interceptor.invoke(findAllByYear(2000, List.of(1, 2)));
+
+        assertThrows(QueryTimeoutException.class, () -> interceptor.invoke(failingFindAllByYear(2000)));
+    }
+
+    private CarServiceCircuitBreakerInterceptor interceptor(Duration maxStaleAge, long maxStaleRows) {
+        return new CarServiceCircuitBreakerInterceptor(breaker, 1, maxStaleAge, maxStaleRows);
+    }
+
+    private static MethodInvocation findAllByYear(long year, List<Integer> result) throws Throwable {
+        MethodInvocation invocation = invocation(year);
+        when(invocation.proceed()).thenReturn(result);
+        return invocation;
+    }
+
+    private static MethodInvocation failingFindAllByYear(long year) throws Throwable {
+        MethodInvocation invocation = invocation(year);
+        when(invocation.proceed()).thenThrow(new QueryTimeoutException("timed out"));
+        return invocation;
+    }
+
+    private static MethodInvocation invocation(long year) throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(CarService.class.getMethod("findAllByYear", long.class, long.class));
+        when(invocation.getArguments()).thenReturn(new Object[]{year, year});
+        return invocation;
+    }
+}
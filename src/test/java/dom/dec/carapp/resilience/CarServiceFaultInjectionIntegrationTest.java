@@ -0,0 +1,207 @@
+package dom.dec.carapp.resilience;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static dom.dec.carapp.api.StaleResponseAdvice.STALE_WARNING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the API against a database made slow by {@link SlowDataSource}, with a one second query timeout and a
+ * breaker that opens after two failures.
+ */
+@SpringBootTest(properties = {
+        "car.resilience.enabled=true",
+        "car.resilience.query-timeout-seconds=1",
+        "car.resilience.failure-threshold=2",
+        "car.resilience.open-duration-ms=1000"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CarServiceFaultInjectionIntegrationTest {
+    private static final Duration STALL = Duration.ofSeconds(10);
+    private static final String NEW_CAR = "{\"brand\":\"Skoda\",\"model\":\"Fabia\",\"color\":\"BLUE\",\"productionYear\":2019}";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CircuitBreaker breaker;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    public void getAllShouldServeLastGoodCarsMarkedStaleWhenQueryTimesOut() throws Exception {
+        mockMvc.perform(get("/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+
+        SlowDataSource.stall(STALL);
+        long start = System.nanoTime();
+        MvcResult result = mockMvc.perform(get("/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, STALE_WARNING))
+                .andExpect(header().exists(HttpHeaders.AGE))
+                .andReturn();
+
+        assertTrue(millisSince(start) < 3_000, "request should give up after the query timeout");
+        assertTrue(result.getResponse().getContentAsString().contains("Alfa Romeo"));
+    }
+
+    @Test
+    public void filterShouldServeStaleWithoutTouchingDatabaseWhileBreakerIsOpen() throws Exception {
+        String filter = "/cars/filter?from=2014&to=2019";
+        String fresh = mockMvc.perform(get(filter))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        SlowDataSource.stall(STALL);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(filter)).andExpect(header().string(HttpHeaders.WARNING, STALE_WARNING));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        long start = System.nanoTime();
+        String stale = mockMvc.perform(get(filter))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, STALE_WARNING))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(millisSince(start) < 500, "open breaker should answer without waiting for the database");
+        assertEquals(fresh, stale);
+    }
+
+    @Test
+    public void shouldReturnServiceUnavailableWhenNothingWasLoadedBefore() throws Exception {
+        SlowDataSource.stall(STALL);
+
+        mockMvc.perform(get("/cars/filter?from=1950&to=1951"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void shouldNotServeResultsLoadedBeforeAWrite() throws Exception {
+        mockMvc.perform(get("/cars")).andExpect(status().isOk());
+        mockMvc.perform(post("/cars").contentType(MediaType.APPLICATION_JSON).content(NEW_CAR))
+                .andExpect(status().isCreated());
+
+        SlowDataSource.stall(STALL);
+        mockMvc.perform(get("/cars"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void writesShouldFailFastWhileBreakerIsOpen() throws Exception {
+        openBreaker();
+
+        long start = System.nanoTime();
+        mockMvc.perform(post("/cars").contentType(MediaType.APPLICATION_JSON).content(NEW_CAR))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        assertTrue(millisSince(start) < 500, "open breaker should reject writes without waiting for the database");
+        SlowDataSource.recover();
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class));
+    }
+
+    @Test
+    public void breakerShouldCloseOnceDatabaseRecovers() throws Exception {
+        openBreaker();
+        SlowDataSource.recover();
+        TimeUnit.MILLISECONDS.sleep(breaker.getRetryAfter().toMillis() + 50);
+
+        mockMvc.perform(post("/cars").contentType(MediaType.APPLICATION_JSON).content(NEW_CAR))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class));
+    }
+
+    @Test
+    public void shouldServeStaleWhileAnotherRequestRefreshes() throws Exception {
+        mockMvc.perform(get("/cars")).andExpect(status().isOk());
+
+        // slow, but within the query timeout, so the refresh succeeds
+        SlowDataSource.stall(Duration.ofMillis(700));
+        CompletableFuture<MvcResult> refresh = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get("/cars")).andReturn();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        mockMvc.perform(get("/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, STALE_WARNING));
+        assertFalse(refresh.isDone(), "stale answer should not wait for the refresh");
+
+        MvcResult refreshed = refresh.get(5, TimeUnit.SECONDS);
+        assertEquals(200, refreshed.getResponse().getStatus());
+        assertNull(refreshed.getResponse().getHeader(HttpHeaders.WARNING));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openBreaker() throws Exception {
+        SlowDataSource.stall(STALL);
+        while (breaker.getState() != CircuitBreaker.State.OPEN) {
+            mockMvc.perform(get("/cars/filter?from=1950&to=1951"))
+                    .andExpect(status().isServiceUnavailable());
+        }
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @AfterEach
+    public void reset() {
+        SlowDataSource.recover();
+        breaker.onSuccess();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @TestConfiguration
+    static class SlowDatabaseConfig {
+
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? SlowDataSource.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dom.dec.carapp.resilience;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+/**
+ * Fault injection for tests: while a delay is set, every statement execution stalls for that long before it reaches
+ * the database. A statement with a query timeout below the delay gives up after the timeout and throws
+ * {@link SQLTimeoutException}, as a driver cancelling a slow query does.
+ */
+public final class SlowDataSource {
+    private static volatile long delayMillis;
+
+    private SlowDataSource() {
+    }
+
+    public static void stall(Duration delay) {
+        delayMillis = delay.toMillis();
+    }
+
+    public static void recover() {
+        delayMillis = 0;
+    }
+
+    public static DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Statement statement ? wrapStatement(statement) : result;
+        });
+    }
+
+    private static Statement wrapStatement(Statement target) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) proxy(type, target, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") && delayMillis > 0) {
+                delay(target.getQueryTimeout());
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static void delay(int queryTimeoutSeconds) throws SQLTimeoutException, InterruptedException {
+        long delay = delayMillis;
+        if (delay <= 0) {
+            return;
+        }
+        long timeout = queryTimeoutSeconds * 1000L;
+        if (timeout > 0 && timeout < delay) {
+            Thread.sleep(timeout);
+            throw new SQLTimeoutException("Statement was canceled or the session timed out", "57014");
+        }
+        Thread.sleep(delay);
+    }
+
+    /**
+     * Identity methods stay on the proxy: Spring Boot compares data sources to decide whether Flyway owns the schema.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Slow" + type.getSimpleName() + "[" + target + "]";
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
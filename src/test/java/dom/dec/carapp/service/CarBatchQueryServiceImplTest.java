@@ -0,0 +1,67 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.YearRangeDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CarBatchQueryServiceImplTest {
+    private CarService carService = mock(CarService.class);
+    private CarBatchQueryServiceImpl batchQueryService = new CarBatchQueryServiceImpl(carService, 2);
+
+    @Test
+    public void shouldMergeOverlappingAndAdjacentRanges() {
+        List<long[]> merged = CarBatchQueryServiceImpl.merge(List.of(new YearRangeDto(2015, 2010),
+                new YearRangeDto(2016, 2018), new YearRangeDto(2000, 2002), new YearRangeDto(2012, 2013)));
+
+        assertEquals(2, merged.size());
+        assertArrayEquals(new long[]{2000, 2002}, merged.get(0));
+        assertArrayEquals(new long[]{2010, 2018}, merged.get(1));
+    }
+
+    @Test
+    public void shouldQueryEachMergedRangeOnceAndSplitResultsPerRequestedRange() {
+        Car car1 = car(1L, 2011);
+        Car car2 = car(2L, 2016);
+        Car car3 = car(3L, 2001);
+        when(carService.findAllByYear(2010, 2018)).thenReturn(List.of(car2, car1));
+        when(carService.findAllByYear(2000, 2002)).thenReturn(List.of(car3));
+
+        List<List<Car>> results = batchQueryService.findAllByYearRanges(List.of(new YearRangeDto(2010, 2016),
+                new YearRangeDto(2000, 2002), new YearRangeDto(2018, 2014), new YearRangeDto(2012, 2013)));
+
+        verify(carService, times(1)).findAllByYear(2010, 2018);
+        verify(carService, times(1)).findAllByYear(2000, 2002);
+        verifyNoMoreInteractions(carService);
+        assertEquals(List.of(car1, car2), results.get(0));
+        assertEquals(List.of(car3), results.get(1));
+        assertEquals(List.of(car2), results.get(2));
+        assertTrue(results.get(3).isEmpty());
+    }
+
+    @Test
+    public void shouldPropagateFailureOfAnyRange() {
+        when(carService.findAllByYear(2000, 2002)).thenThrow(new IllegalStateException("database down"));
+        when(carService.findAllByYear(2010, 2012)).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> batchQueryService.findAllByYearRanges(
+                List.of(new YearRangeDto(2000, 2002), new YearRangeDto(2010, 2012))));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batchQueryService.shutdown();
+    }
+
+    private static Car car(long id, long year) {
+        Car car = new Car("Audi", "A4", Color.BLACK, year);
+        car.setCarId(id);
+        return car;
+    }
+}
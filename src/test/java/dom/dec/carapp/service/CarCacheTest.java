@@ -0,0 +1,53 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarCacheTest {
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedCarWhenFull() {
+        CarCache cache = new CarCache(2);
+        cache.put(car(1L), cache.stamp());
+        cache.put(car(2L), cache.stamp());
+
+        cache.get(1L);
+        cache.put(car(3L), cache.stamp());
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+    }
+
+    @Test
+    public void shouldNotCacheCarLoadedBeforeInvalidation() {
+        CarCache cache = new CarCache(10);
+        long stamp = cache.stamp();
+
+        cache.onCarChanged(CarChangedEvent.of(1L));
+        cache.put(car(1L), stamp);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void shouldClearOnBulkChange() {
+        CarCache cache = new CarCache(10);
+        cache.put(car(1L), cache.stamp());
+        cache.put(car(2L), cache.stamp());
+
+        cache.onCarChanged(CarChangedEvent.bulk());
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    private Car car(long id) {
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(id);
+        return car;
+    }
+}
@@ -0,0 +1,117 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CarIdIndexTest {
+
+    @Test
+    public void shouldTreatEveryIdAsPossibleBeforeFirstBuild() {
+        CarIdIndex index = new CarIdIndex(mock(JdbcTemplate.class), true);
+
+        assertTrue(index.mightContain(42L));
+    }
+
+    @Test
+    public void shouldReportDefiniteMissesAfterRebuild() throws Exception {
+        CarIdIndex index = new CarIdIndex(jdbcTemplateWithIds(1, 2, 3, 130), true);
+
+        index.rebuild();
+
+        assertTrue(index.mightContain(1L));
+        assertTrue(index.mightContain(130L));
+        assertFalse(index.mightContain(4L));
+        assertFalse(index.mightContain(100_000L));
+        assertFalse(index.mightContain(-1L));
+    }
+
+    @Test
+    public void shouldGrowWhenAddingLargerIds() throws Exception {
+        CarIdIndex index = new CarIdIndex(jdbcTemplateWithIds(1), true);
+        index.rebuild();
+
+        index.add(1_000_000L);
+        index.remove(1L);
+
+        assertTrue(index.mightContain(1_000_000L));
+        assertFalse(index.mightContain(1L));
+    }
+
+    @Test
+    public void shouldKeepIdsAddedConcurrently() throws Exception {
+        CarIdIndex index = new CarIdIndex(jdbcTemplateWithIds(1), true);
+        index.rebuild();
+
+        IntStream.rangeClosed(2, 200_000).parallel().forEach(index::add);
+
+        assertTrue(IntStream.rangeClosed(1, 200_000).allMatch(index::mightContain));
+    }
+
+    @Test
+    public void shouldAnswerMaybeWhenDisabled() throws Exception {
+        CarIdIndex index = new CarIdIndex(jdbcTemplateWithIds(1), false);
+        index.rebuild();
+
+        assertTrue(index.mightContain(2L));
+    }
+
+    @Test
+    public void shouldRebuildInBackgroundOnlyWhenIdsChanged() throws Exception {
+        JdbcTemplate jdbcTemplate = jdbcTemplateWithIds(1);
+        ExecutorService rebuilder = mock(ExecutorService.class);
+        CarIdIndex index = new CarIdIndex(jdbcTemplate, true, rebuilder);
+        index.rebuild();
+
+        index.onCarChanged(CarChangedEvent.bulkUpdate());
+        verifyNoInteractions(rebuilder);
+
+        index.onCarChanged(CarChangedEvent.bulk());
+        assertTrue(index.mightContain(2L));
+
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+        verify(rebuilder).execute(rebuild.capture());
+        rebuild.getValue().run();
+        assertFalse(index.mightContain(2L));
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void shouldCreateExceptionWithoutStackTrace() {
+        ResourceNotFoundException exception = new ResourceNotFoundException("Car", "id", 10L);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("Car not found with id : 10", exception.getMessage());
+    }
+
+    private JdbcTemplate jdbcTemplateWithIds(long... ids) throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        long max = 0;
+        for (long id : ids) {
+            max = Math.max(max, id);
+        }
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(max);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (long id : ids) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn(id);
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        return jdbcTemplate;
+    }
+}
@@ -2,13 +2,21 @@ package dom.dec.carapp.service;
 
 import dom.dec.carapp.domain.Car;
 import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarBatchDto;
 import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
 import dom.dec.carapp.exception.ResourceNotFoundException;
 import dom.dec.carapp.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -24,9 +32,25 @@ class CarServiceImplTest {
 
     @Mock
     private CarRepository carRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CarIdIndex idIndex;
+    @Mock
+    private CarCache carCache;
+    @Mock
+    private CarArchive carArchive;
+    @Mock
+    private CarWriteBatcher writeBatcher;
 
     @InjectMocks
-    private CarService carService = new CarServiceImpl(carRepository);
+    private CarService carService = new CarServiceImpl(carRepository, eventPublisher, idIndex, carCache, carArchive,
+            writeBatcher);
+
+    @BeforeEach
+    public void setUp() {
+        when(idIndex.mightContain(anyLong())).thenReturn(true);
+    }
 
 
     @Test
@@ -84,15 +108,14 @@ class CarServiceImplTest {
         car1.setCarId(1L);
         Car car2 = new Car("Fiat", "Punto", Color.RED, 2016);
         car2.setCarId(2L);
-        List<Car> cars = Arrays.asList(car1, car2);
 
         // when
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findAllByProductionYearBetween(2011, 2017)).thenReturn(List.of(car2));
 
         // then
         List<Car> actualCars = carService.findAllByYear(2011, 2017);
 
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findAllByProductionYearBetween(2011, 2017);
         assertEquals(1, actualCars.size());
     }
 
@@ -103,15 +126,14 @@ class CarServiceImplTest {
         car1.setCarId(1L);
         Car car2 = new Car("Fiat", "Punto", Color.RED, 2016);
         car2.setCarId(2L);
-        List<Car> cars = Arrays.asList(car1, car2);
 
         // when
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findAllByProductionYearBetween(2011, 2017)).thenReturn(List.of(car2));
 
         // then
         List<Car> actualCars = carService.findAllByYear(2017, 2011);
 
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findAllByProductionYearBetween(2011, 2017);
         assertEquals(1, actualCars.size());
     }
 
@@ -122,15 +144,14 @@ class CarServiceImplTest {
         car1.setCarId(1L);
         Car car2 = new Car("Fiat", "Punto", Color.RED, 2016);
         car2.setCarId(2L);
-        List<Car> cars = Arrays.asList(car1, car2);
 
         // when
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findAllByProductionYearBetween(2016, 2016)).thenReturn(List.of(car2));
 
         // then
         List<Car> actualCars = carService.findAllByYear(2016, 2016);
 
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findAllByProductionYearBetween(2016, 2016);
         assertEquals(1, actualCars.size());
     }
 
@@ -141,18 +162,34 @@ class CarServiceImplTest {
         car1.setCarId(1L);
         Car car2 = new Car("Fiat", "Punto", Color.RED, 2016);
         car2.setCarId(2L);
-        List<Car> cars = Arrays.asList(car1, car2);
 
         // when
-        when(carRepository.findAll()).thenReturn(cars);
+        when(carRepository.findAllByProductionYearBetween(2010, 2015)).thenReturn(List.of());
 
         // then
         List<Car> actualCars = carService.findAllByYear(2010, 2015);
 
-        verify(carRepository, times(1)).findAll();
+        verify(carRepository, times(1)).findAllByProductionYearBetween(2010, 2015);
         assertTrue(actualCars.isEmpty());
     }
 
+    @Test
+    public void shouldReturnRequestedFieldsForCarsInRange() {
+        // given
+        List<String> fields = List.of("carId", "brand");
+        List<Object[]> rows = List.<Object[]>of(new Object[]{2L, "Fiat"});
+
+        // when
+        when(carRepository.findAllFieldsByProductionYearBetween(fields, 2011, 2017)).thenReturn(rows);
+
+        // then
+        CarProjectionDto projection = carService.findAllByYear(2017, 2011, fields);
+
+        verify(carRepository, times(1)).findAllFieldsByProductionYearBetween(fields, 2011, 2017);
+        assertEquals(fields, projection.getFields());
+        assertEquals(rows, projection.getRows());
+    }
+
     @Test
     public void shouldUpdateTheCar() {
         // given
@@ -185,6 +222,80 @@ class CarServiceImplTest {
         assertThrows(ResourceNotFoundException.class, () -> carService.updateCar(carDto, anyLong()));
     }
 
+    @Test
+    public void shouldUpdateArchivedCarWhenNotInHotTier() {
+        // given
+        CarDto newCar = new CarDto("Fiat", "Panda", Color.GREEN, 2005);
+        Car archivedCar = new Car("Fiat", "Panda", Color.GREEN, 2005);
+        archivedCar.setCarId(3L);
+
+        // when
+        when(carRepository.findById(3L)).thenReturn(Optional.empty());
+        when(carArchive.update(3L, newCar)).thenReturn(Optional.of(archivedCar));
+
+        // then
+        Car actualCar = carService.updateCar(newCar, 3L);
+
+        verify(carRepository, times(0)).save(any(Car.class));
+        assertEquals(archivedCar, actualCar);
+    }
+
+    @Test
+    public void shouldSaveThroughWriteBatcherWhenEnabled() {
+        // given
+        CarDto carDto = new CarDto("Audi", "A4", Color.BLACK, 2020);
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(8L);
+
+        // when
+        when(writeBatcher.isEnabled()).thenReturn(true);
+        when(writeBatcher.insert(carDto)).thenReturn(car);
+
+        // then
+        Car actualCar = carService.saveCar(carDto);
+
+        verify(carRepository, times(0)).save(any(Car.class));
+        verify(idIndex, times(1)).add(8L);
+        assertEquals(car, actualCar);
+    }
+
+    @Test
+    public void shouldUpdateArchivedCarWhenWriteBatcherFindsNoHotCar() {
+        // given
+        CarDto newCar = new CarDto("Fiat", "Panda", Color.GREEN, 2005);
+        Car archivedCar = new Car("Fiat", "Panda", Color.GREEN, 2005);
+        archivedCar.setCarId(3L);
+
+        // when
+        when(writeBatcher.isEnabled()).thenReturn(true);
+        when(writeBatcher.update(3L, newCar)).thenReturn(Optional.empty());
+        when(carArchive.update(3L, newCar)).thenReturn(Optional.of(archivedCar));
+
+        // then
+        Car actualCar = carService.updateCar(newCar, 3L);
+
+        verify(carRepository, times(0)).findById(anyLong());
+        assertEquals(archivedCar, actualCar);
+    }
+
+    @Test
+    public void shouldAppendArchivedCarsWhenRangeReachesArchive() {
+        // given
+        Car hotCar = new Car("Volvo", "V40", Color.BLACK, 2015);
+        hotCar.setCarId(2L);
+        Car archivedCar = new Car("Fiat", "Panda", Color.YELLOW, 2006);
+        archivedCar.setCarId(3L);
+
+        // when
+        when(carRepository.findAllByProductionYearBetween(2000, 2015)).thenReturn(List.of(hotCar));
+        when(carArchive.findAllByYear(2000, 2015)).thenReturn(List.of(archivedCar));
+
+        // then
+        List<Car> actualCars = carService.findAllByYear(2015, 2000);
+
+        assertEquals(List.of(hotCar, archivedCar), actualCars);
+    }
+
     @Test
     public void shouldDeleteCar() {
         // given
@@ -206,4 +317,190 @@ class CarServiceImplTest {
 
         assertThrows(ResourceNotFoundException.class, () -> carService.deleteCar(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotQueryRepositoryWhenIdDefinitelyMissing() {
+        // when
+        when(idIndex.mightContain(1L)).thenReturn(false);
+
+        // then
+        assertThrows(ResourceNotFoundException.class, () -> carService.deleteCar(1L));
+        verify(carRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    public void shouldTrackSavedAndDeletedIds() {
+        // given
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(1L);
+
+        // when
+        when(carRepository.save(any())).thenReturn(car);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
+
+        // then
+        carService.saveCar(new CarDto("Audi", "A4", Color.BLACK, 2020));
+        carService.deleteCar(1L);
+
+        verify(idIndex, times(1)).add(1L);
+        verify(idIndex, times(1)).remove(1L);
+    }
+
+    @Test
+    public void shouldUndoIndexChangesOfRolledBackTransaction() {
+        // given
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(1L);
+        Car saved = new Car("Audi", "A4", Color.BLACK, 2020);
+        saved.setCarId(8L);
+
+        // when
+        when(carRepository.save(any())).thenReturn(saved);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
+
+        // then
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            carService.saveCar(new CarDto("Audi", "A4", Color.BLACK, 2020));
+            carService.deleteCar(1L);
+            verify(idIndex, times(0)).remove(anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(idIndex, times(1)).add(8L);
+        verify(idIndex, times(1)).remove(8L);
+        verify(idIndex, times(0)).remove(1L);
+    }
+
+    @Test
+    public void shouldReturnCachedCarWithoutQuery() {
+        // given
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(1L);
+
+        // when
+        when(carCache.get(1L)).thenReturn(car);
+
+        // then
+        Car actualCar = carService.findById(1L);
+
+        assertEquals(car, actualCar);
+        verify(carRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    public void shouldLoadAndCacheCarWhenNotCached() {
+        // given
+        Car car = new Car("Audi", "A4", Color.BLACK, 2020);
+        car.setCarId(1L);
+
+        // when
+        when(carCache.stamp()).thenReturn(5L);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
+
+        // then
+        Car actualCar = carService.findById(1L);
+
+        assertEquals(car, actualCar);
+        verify(carCache, times(1)).put(car, 5L);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNoCarToFind() {
+        // when
+        when(carRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> carService.findById(1L));
+    }
+
+    @Test
+    public void shouldReturnCarsInRequestOrderAndReportMissingIds() {
+        // given
+        Car car1 = new Car("Audi", "A4", Color.BLACK, 2020);
+        car1.setCarId(1L);
+        Car car2 = new Car("Fiat", "Punto", Color.RED, 2016);
+        car2.setCarId(2L);
+        Car car3 = new Car("BMW", "330i", Color.SILVER, 2021);
+        car3.setCarId(3L);
+
+        // when
+        when(carCache.get(3L)).thenReturn(car3);
+        when(idIndex.mightContain(9L)).thenReturn(false);
+        when(carRepository.findAllById(Arrays.asList(2L, 7L, 1L))).thenReturn(Arrays.asList(car1, car2));
+
+        // then
+        CarBatchDto batch = carService.findAllByIds(Arrays.asList(2L, 3L, 7L, 9L, 1L, 2L));
+
+        assertEquals(Arrays.asList(car2, car3, car1), batch.getCars());
+        assertEquals(Arrays.asList(7L, 9L), batch.getMissing());
+        verify(carRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    public void shouldLoadLargeIdListsInChunks() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            ids.add(id);
+        }
+
+        // when
+        when(carRepository.findAllById(any())).thenReturn(new ArrayList<>());
+
+        // then
+        CarBatchDto batch = carService.findAllByIds(ids);
+
+        verify(carRepository, times(3)).findAllById(any());
+        assertEquals(2_500, batch.getMissing().size());
+    }
+
+    @Test
+    public void shouldUpdateMatchingCarsWithSwappedYearRange() {
+        // given
+        CarFilterDto filter = new CarFilterDto(null, "Punto", null, 2020L, 2000L);
+        CarPatchDto patch = new CarPatchDto(null, null, Color.BLUE, null);
+
+        // when
+        when(carRepository.updateMatching(null, "Punto", null, 2000L, 2020L, null, null, Color.BLUE, null)).thenReturn(3);
+
+        // then
+        long updated = carService.updateAllMatching(filter, patch, false);
+
+        assertEquals(3, updated);
+        verify(eventPublisher, times(1)).publishEvent(CarChangedEvent.bulkUpdate());
+    }
+
+    @Test
+    public void shouldOnlyCountMatchingCarsOnDryRun() {
+        // given
+        CarFilterDto filter = new CarFilterDto(null, null, null, null, 1990L);
+
+        // when
+        when(carRepository.countMatching(null, null, null, null, 1990L)).thenReturn(4L);
+
+        // then
+        long deleted = carService.deleteAllMatching(filter, true);
+
+        assertEquals(4, deleted);
+        verify(carRepository, times(0)).deleteMatching(any(), any(), any(), any(), any());
+        verify(eventPublisher, times(0)).publishEvent(any());
+    }
+
+    @Test
+    public void shouldDeleteMatchingCars() {
+        // given
+        CarFilterDto filter = new CarFilterDto(null, null, null, null, 1990L);
+
+        // when
+        when(carRepository.deleteMatching(null, null, null, null, 1990L)).thenReturn(2);
+
+        // then
+        long deleted = carService.deleteAllMatching(filter, false);
+
+        assertEquals(2, deleted);
+        verify(eventPublisher, times(1)).publishEvent(CarChangedEvent.bulk());
+    }
+}
@@ -0,0 +1,163 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// a long window so that writes submitted together share a batch
+@SpringBootTest(properties = {"car.write-batching.enabled=true", "car.write-batching.window-micros=100000"})
+@ActiveProfiles("test")
+class CarWriteBatcherTest {
+
+    @Autowired
+    private CarWriteBatcher writeBatcher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Flyway flyway;
+    private ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @Test
+    public void shouldShareTransactionsBetweenConcurrentInserts() {
+        long batches = writeBatcher.getBatches();
+
+        List<Car> cars = concurrently(8, i -> () -> writeBatcher.insert(new CarDto("Audi", "A" + i, Color.BLACK, 2020)));
+
+        Set<Long> ids = new HashSet<>();
+        for (Car car : cars) {
+            ids.add(car.getCarId());
+            assertEquals(car.getModel(), jdbcTemplate.queryForObject("SELECT model FROM cars WHERE car_id = ?",
+                    String.class, car.getCarId()));
+        }
+        assertEquals(8, ids.size());
+        assertTrue(writeBatcher.getBatches() - batches < 8);
+    }
+
+    @Test
+    public void shouldCollapseUpdatesOfSameCarToLastWrite() {
+        List<Car> cars = concurrently(5, i -> () -> writeBatcher.update(1L, new CarDto("Fiat", "Punto " + i,
+                Color.RED, 2016)).orElseThrow());
+
+        Set<Long> versions = new HashSet<>();
+        cars.forEach(car -> versions.add(car.getVersion()));
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), versions);
+
+        Car last = cars.stream().filter(car -> car.getVersion() == 5).findFirst().orElseThrow();
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT model, version FROM cars WHERE car_id = 1");
+        assertEquals(last.getModel(), row.get("MODEL"));
+        assertEquals(5L, row.get("VERSION"));
+    }
+
+    @Test
+    public void shouldReturnEmptyWhenCarToUpdateIsMissing() {
+        Optional<Car> updated = writeBatcher.update(100L, new CarDto("Fiat", "Punto", Color.RED, 2016));
+
+        assertTrue(updated.isEmpty());
+    }
+
+    @Test
+    public void shouldFailOnlyTheFaultyWriteOfBatch() {
+        CompletableFuture<Car> valid = CompletableFuture.supplyAsync(() ->
+                writeBatcher.insert(new CarDto("Audi", "A4", Color.BLACK, 2020)), executor);
+        CompletableFuture<Car> invalid = CompletableFuture.supplyAsync(() ->
+                writeBatcher.insert(new CarDto(null, "A4", Color.BLACK, 2020)), executor);
+
+        assertEquals("Audi", valid.join().getBrand());
+        CompletionException error = assertThrows(CompletionException.class, invalid::join);
+        assertInstanceOf(DataIntegrityViolationException.class, error.getCause());
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class));
+    }
+
+    @Test
+    public void shouldStopWaitingForQueuedWriteWhenWriterStalls() throws Exception {
+        TransactionTemplate stalled = mock(TransactionTemplate.class);
+        when(stalled.execute(any())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return null;
+        });
+        CarWriteBatcher stalledBatcher = new CarWriteBatcher(jdbcTemplate, stalled, true, 0, 128, 100, 2);
+        stalledBatcher.start();
+        CompletableFuture.runAsync(() -> stalledBatcher.insert(new CarDto("Audi", "A4", Color.BLACK, 2020)), executor);
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        assertThrows(QueryTimeoutException.class, () -> stalledBatcher.insert(new CarDto("Audi", "A6", Color.BLACK, 2020)));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        stalledBatcher.shutdown();
+    }
+
+    @Test
+    public void shouldReturnSlowWriteThatWasAlreadyInFlight() throws Exception {
+        TransactionTemplate slow = mock(TransactionTemplate.class);
+        when(slow.execute(any())).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return transactionTemplate.execute(invocation.getArgument(0));
+        });
+        CarWriteBatcher slowBatcher = new CarWriteBatcher(jdbcTemplate, slow, true, 0, 128, 100, 2);
+        slowBatcher.start();
+
+        Car car = slowBatcher.insert(new CarDto("Audi", "A4", Color.BLACK, 2020));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars WHERE car_id = ?", Long.class,
+                car.getCarId()));
+        assertEquals(8, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class));
+        slowBatcher.shutdown();
+    }
+
+    @Test
+    public void shouldKeepWritingAfterErrorInBatch() throws Exception {
+        TransactionTemplate failingOnce = mock(TransactionTemplate.class);
+        when(failingOnce.execute(any())).thenThrow(new AssertionError("boom")).thenReturn(null);
+        CarWriteBatcher failingBatcher = new CarWriteBatcher(jdbcTemplate, failingOnce, true, 0, 128, 1_000, 2);
+        failingBatcher.start();
+
+        assertThrows(IllegalStateException.class, () -> failingBatcher.insert(new CarDto("Audi", "A4", Color.BLACK, 2020)));
+        assertTrue(failingBatcher.update(1L, new CarDto("Audi", "A4", Color.BLACK, 2020)).isEmpty());
+        failingBatcher.shutdown();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    private List<Car> concurrently(int writers, IntFunction<Supplier<Car>> write) {
+        List<CompletableFuture<Car>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            futures.add(CompletableFuture.supplyAsync(write.apply(i), executor));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,223 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarBatchDto;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.CarFilterDto;
+import dom.dec.carapp.dto.CarPatchDto;
+import dom.dec.carapp.dto.CarProjectionDto;
+import dom.dec.carapp.exception.InvalidFieldException;
+import dom.dec.carapp.exception.ResourceNotFoundException;
+import dom.dec.carapp.storage.CarStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class EmbeddedCarServiceImplTest {
+
+    @TempDir
+    private Path directory;
+    private CarStore store;
+    private ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private CarService carService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = CarStore.open(directory, false, 0);
+        store.insertAll(List.of(
+                new Car("Audi", "A4", Color.BLACK, 2020),
+                new Car("Fiat", "Punto", Color.RED, 2016),
+                new Car("Fiat", "Panda", Color.YELLOW, 2006)));
+        carService = new EmbeddedCarServiceImpl(store, eventPublisher);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void shouldReturnAllCarsOrderedById() {
+        List<Car> cars = carService.findAll();
+
+        assertEquals(3, cars.size());
+        assertEquals(List.of(1L, 2L, 3L), cars.stream().map(Car::getCarId).toList());
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenNoCars() {
+        carService.deleteAllMatching(new CarFilterDto(null, null, null, null, null), false);
+
+        assertEquals(List.of(), carService.findAll());
+    }
+
+    @Test
+    public void shouldReturnCreatedCarWithNextId() {
+        Car saved = carService.saveCar(new CarDto("Volvo", "V40", Color.BLACK, 2015));
+
+        assertEquals(4, saved.getCarId());
+        assertEquals("Volvo", carService.findById(4).getBrand());
+        verify(eventPublisher).publishEvent(changed(4));
+    }
+
+    @Test
+    public void shouldReturnOneCarInTheGivenRange() {
+        List<Car> cars = carService.findAllByYear(2015, 2018);
+
+        assertEquals(List.of("Punto"), cars.stream().map(Car::getModel).toList());
+    }
+
+    @Test
+    public void shouldReturnOneCarWhenMinAndMaxTheSame() {
+        List<Car> cars = carService.findAllByYear(2016, 2016);
+
+        assertEquals(List.of("Punto"), cars.stream().map(Car::getModel).toList());
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenNoCarsInRange() {
+        assertEquals(List.of(), carService.findAllByYear(1990, 2000));
+    }
+
+    @Test
+    public void shouldReturnCarsInRangeWhenRangeReversed() {
+        List<Car> cars = carService.findAllByYear(2021, 2010);
+
+        assertEquals(List.of("Audi", "Fiat"), cars.stream().map(Car::getBrand).toList());
+    }
+
+    @Test
+    public void shouldReturnRequestedFieldsForCarsInRange() {
+        CarProjectionDto projection = carService.findAllByYear(2010, 2021, List.of("model", "carId"));
+
+        assertEquals(List.of("model", "carId"), projection.getFields());
+        assertArrayEquals(new Object[]{"A4", 1L}, projection.getRows().get(0));
+        assertArrayEquals(new Object[]{"Punto", 2L}, projection.getRows().get(1));
+    }
+
+    @Test
+    public void shouldRejectUnknownField() {
+        assertThrows(InvalidFieldException.class, () -> carService.findAll(List.of("brand", "version")));
+        assertThrows(InvalidFieldException.class, () -> carService.findAll(List.of()));
+    }
+
+    @Test
+    public void shouldUpdateTheCarWithNextVersion() {
+        Car updated = carService.updateCar(new CarDto("Fiat", "Tipo", Color.WHITE, 2017), 2);
+
+        assertEquals("Tipo", updated.getModel());
+        assertEquals(1, updated.getVersion());
+        assertEquals("Tipo", carService.findById(2).getModel());
+        verify(eventPublisher).publishEvent(changed(2));
+    }
+
+    @Test
+    public void shouldReturnUpdatedCarInItsNewYearOnly() {
+        carService.updateCar(new CarDto("Fiat", "Panda", Color.YELLOW, 2019), 3);
+
+        assertEquals(List.of(3L), carService.findAllByYear(2019, 2019).stream().map(Car::getCarId).toList());
+        assertEquals(List.of(), carService.findAllByYear(2006, 2006));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNoCarToUpdate() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> carService.updateCar(new CarDto("Fiat", "Tipo", Color.WHITE, 2017), 42));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void shouldDeleteCar() {
+        carService.deleteCar(1);
+
+        assertThrows(ResourceNotFoundException.class, () -> carService.findById(1));
+        assertThrows(ResourceNotFoundException.class, () -> carService.deleteCar(1));
+        verify(eventPublisher, times(1)).publishEvent(changed(1));
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNoCarToDelete() {
+        assertThrows(ResourceNotFoundException.class, () -> carService.deleteCar(42));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenNoCarToFind() {
+        assertThrows(ResourceNotFoundException.class, () -> carService.findById(42));
+    }
+
+    @Test
+    public void shouldReturnCarsInRequestOrderAndReportMissingIds() {
+        CarBatchDto batch = carService.findAllByIds(Arrays.asList(3L, 42L, null, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L), batch.getCars().stream().map(Car::getCarId).toList());
+        assertEquals(List.of(42L), batch.getMissing());
+    }
+
+    @Test
+    public void shouldReturnLargeIdListsWithEveryMissingId() {
+        List<Long> ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+
+        CarBatchDto batch = carService.findAllByIds(ids);
+
+        assertEquals(List.of(1L, 2L, 3L), batch.getCars().stream().map(Car::getCarId).toList());
+        assertEquals(2_497, batch.getMissing().size());
+    }
+
+    @Test
+    public void shouldUpdateMatchingCarsWithSwappedYearRange() {
+        CarFilterDto filter = new CarFilterDto("Fiat", null, null, 2020L, 2000L);
+
+        long updated = carService.updateAllMatching(filter, new CarPatchDto(null, null, Color.GREEN, null), false);
+
+        assertEquals(2, updated);
+        assertEquals(Color.GREEN, carService.findById(2).getColor());
+        assertEquals(Color.GREEN, carService.findById(3).getColor());
+        assertEquals(Color.BLACK, carService.findById(1).getColor());
+        verify(eventPublisher, times(1)).publishEvent(CarChangedEvent.bulkUpdate());
+    }
+
+    @Test
+    public void shouldOnlyCountMatchingCarsOnDryRun() {
+        CarFilterDto filter = new CarFilterDto(null, null, Color.RED, null, null);
+
+        assertEquals(1, carService.deleteAllMatching(filter, true));
+        assertEquals(3, carService.findAll().size());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void shouldDeleteMatchingCars() {
+        long deleted = carService.deleteAllMatching(new CarFilterDto("Fiat", null, null, null, null), false);
+
+        assertEquals(2, deleted);
+        assertEquals(List.of("Audi"), carService.findAll().stream().map(Car::getBrand).toList());
+        verify(eventPublisher, times(1)).publishEvent(CarChangedEvent.bulk());
+    }
+
+    @Test
+    public void shouldNotPublishEventWhenNothingMatches() {
+        CarFilterDto filter = new CarFilterDto("Volvo", null, null, null, null);
+
+        assertEquals(0, carService.updateAllMatching(filter, new CarPatchDto(null, null, Color.GREEN, null), false));
+        assertEquals(0, carService.deleteAllMatching(filter, false));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Object changed(long id) {
+        return argThat((Object event) -> event instanceof CarChangedEvent changed && changed.getCarId() == id);
+    }
+}
@@ -0,0 +1,71 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.RecordingDto;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "car.profiling.directory=target/test-recordings")
+@ActiveProfiles("test")
+class ProfilingServiceImplTest {
+
+    @Autowired
+    private ProfilingService profilingService;
+    @Autowired
+    private CarService carService;
+
+    @Test
+    public void shouldRecordCarServiceEventsAndDumpThemToFile() throws Exception {
+        RecordingDto started = profilingService.start("default");
+        assertEquals("RUNNING", started.getState());
+
+        carService.findAllByYear(2019, 2014);
+        profilingService.stop();
+        RecordingDto dumped = profilingService.dump();
+
+        Path file = Paths.get(dumped.getDumpFile());
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("dom.dec.carapp.CarService"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("findAllByYear", events.get(0).getString("operation"));
+        assertEquals(2014, events.get(0).getLong("fromYear"));
+        assertEquals(2019, events.get(0).getLong("toYear"));
+        assertEquals(2, events.get(0).getLong("rows"));
+    }
+
+    @Test
+    public void shouldNotStartSecondRecordingWhileRunning() {
+        profilingService.start("default");
+
+        assertThrows(IllegalStateException.class, () -> profilingService.start("profile"));
+    }
+
+    @Test
+    public void shouldRejectUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> profilingService.start("unknown"));
+    }
+
+    @Test
+    public void shouldFailToDumpWithoutRecording() {
+        assertTrue(profilingService.findCurrent().isEmpty());
+        assertThrows(IllegalStateException.class, () -> profilingService.dump());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ((ProfilingServiceImpl) profilingService).closeRecording();
+    }
+}
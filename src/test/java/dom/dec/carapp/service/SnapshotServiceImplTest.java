@@ -0,0 +1,103 @@
+package dom.dec.carapp.service;
+
+import dom.dec.carapp.dto.SnapshotDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotServiceImplTest {
+    private static final int FLEET_SIZE = 10_000;
+    private static final String DB_NAME = "carsDb";
+    private static final String SETTINGS = ";CACHE_SIZE=65536;PAGE_SIZE=16384;WRITE_DELAY=500";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldRestoreLatestSnapshot() {
+        // given
+        Path primaryDir = tempDir.resolve("primary");
+        Path snapshotDir = tempDir.resolve("snapshots");
+        Path recoveredDir = tempDir.resolve("recovered");
+        SnapshotDto snapshot;
+
+        SingleConnectionDataSource primary = open(primaryDir);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(primary);
+            seed(jdbcTemplate);
+
+            // when
+            snapshot = new SnapshotServiceImpl(jdbcTemplate, snapshotDir.toString()).createSnapshot();
+        } finally {
+            primary.destroy();
+        }
+
+        SnapshotRestorer restorer = new SnapshotRestorer(recoveredDir, DB_NAME, snapshotDir);
+        Optional<Path> restored = restorer.restoreIfAbsent(SnapshotRestorer.LATEST);
+        SingleConnectionDataSource recovered = open(recoveredDir);
+        long recoveredRows = count(recovered);
+        recovered.destroy();
+
+        // then
+        assertTrue(snapshot.getSizeBytes() > 0);
+        assertTrue(restored.isPresent());
+        assertTrue(Files.exists(restorer.getDatabaseFile()));
+        assertEquals(FLEET_SIZE, recoveredRows);
+    }
+
+    @Test
+    public void shouldNotRestoreWhenDatabaseFileExists() throws Exception {
+        // given
+        Path dbDir = Files.createDirectories(tempDir.resolve("db"));
+        Path snapshotDir = Files.createDirectories(tempDir.resolve("snapshots"));
+        Files.writeString(dbDir.resolve(DB_NAME + ".mv.db"), "existing");
+        Files.writeString(snapshotDir.resolve("cars-1.zip"), "snapshot");
+
+        // when
+        Optional<Path> restored = new SnapshotRestorer(dbDir, DB_NAME, snapshotDir).restoreIfAbsent(SnapshotRestorer.LATEST);
+
+        // then
+        assertTrue(restored.isEmpty());
+        assertEquals("existing", Files.readString(dbDir.resolve(DB_NAME + ".mv.db")));
+    }
+
+    @Test
+    public void shouldListCreatedSnapshots() {
+        SingleConnectionDataSource dataSource = open(tempDir.resolve("listed"));
+        try {
+            SnapshotService snapshotService = new SnapshotServiceImpl(new JdbcTemplate(dataSource), tempDir.resolve("snapshots").toString());
+
+            snapshotService.createSnapshot();
+            List<SnapshotDto> snapshots = snapshotService.findAll();
+
+            assertEquals(1, snapshots.size());
+            assertTrue(snapshots.get(0).getFileName().endsWith(SnapshotRestorer.SNAPSHOT_EXTENSION));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private SingleConnectionDataSource open(Path directory) {
+        String url = "jdbc:h2:file:" + directory.resolve(DB_NAME).toAbsolutePath() + SETTINGS;
+        return new SingleConnectionDataSource(url, "sa", "", true);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE cars (car_id INT AUTO_INCREMENT PRIMARY KEY, brand VARCHAR(255) NOT NULL, " +
+                "model VARCHAR(255) NOT NULL, color VARCHAR(255) NOT NULL, production_year INT)");
+        jdbcTemplate.update("INSERT INTO cars (brand, model, color, production_year) " +
+                "SELECT 'Brand' || MOD(X, 50), 'Model' || MOD(X, 500), 'RED', 1990 + MOD(X, 35) FROM SYSTEM_RANGE(1, ?)", FLEET_SIZE);
+    }
+
+    private long count(SingleConnectionDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM cars", Long.class);
+    }
+}
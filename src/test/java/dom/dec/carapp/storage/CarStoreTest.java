@@ -0,0 +1,178 @@
+package dom.dec.carapp.storage;
+
+import dom.dec.carapp.domain.Car;
+import dom.dec.carapp.domain.Color;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldRecoverChangesFromLog() throws IOException {
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertTrue(store.isNew());
+            store.insertAll(List.of(car("Audi", 2018), car("Fiat", 2006), car("Volvo", 2015)));
+            store.update(2, car -> car.setModel("Tipo"));
+            store.delete(3);
+        }
+
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertFalse(store.isNew());
+            assertEquals(2, store.size());
+            assertEquals("Tipo", store.get(2).getModel());
+            assertEquals(1, store.get(2).getVersion());
+            assertNull(store.get(3));
+            assertEquals(4, store.insert(car("BMW", 2021)).getCarId());
+        }
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshotAndLogTail() throws IOException {
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            store.insertAll(List.of(car("Audi", 2018), car("Fiat", 2006)));
+            store.compact();
+            store.delete(2);
+            store.insert(car("Volvo", 2015));
+        }
+
+        assertEquals(1, files("snapshot-"));
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals(List.of(1L, 3L), store.find(car -> true).stream().map(Car::getCarId).toList());
+            assertEquals(4, store.insert(car("BMW", 2021)).getCarId());
+        }
+    }
+
+    @Test
+    public void shouldDeleteCompactedLogsAndKeepNextIdOfDeletedCars() throws IOException {
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            store.insertAll(List.of(car("Audi", 2018), car("Fiat", 2006)));
+            store.delete(2);
+            assertFalse(store.compactIfLargerThan(Long.MAX_VALUE));
+            assertTrue(store.compactIfLargerThan(1));
+            assertEquals(0, store.getUncompactedLogBytes());
+        }
+
+        assertEquals(1, files("log-"));
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals(1, store.size());
+            assertEquals(3, store.insert(car("Volvo", 2015)).getCarId());
+        }
+    }
+
+    @Test
+    public void shouldDropTornFrameAtEndOfLog() throws IOException {
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            store.insert(car("Audi", 2018));
+            store.insert(car("Fiat", 2006));
+        }
+        Path log;
+        try (Stream<Path> files = Files.list(directory)) {
+            log = files.filter(file -> file.getFileName().toString().startsWith("log-")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals(1, store.size());
+            assertEquals("Audi", store.get(1).getBrand());
+            assertEquals(2, store.insert(car("Volvo", 2015)).getCarId());
+        }
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals("Volvo", store.get(2).getBrand());
+        }
+    }
+
+    @Test
+    public void shouldApplyBulkChangesAndTruncateAtomically() throws IOException {
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            store.insertAll(List.of(car("Fiat", 2006), car("Fiat", 2009), car("Audi", 2018)));
+            assertEquals(2, store.updateMatching(car -> car.getBrand().equals("Fiat"), car -> car.setColor(Color.GREEN)));
+            assertEquals(1, store.deleteMatching(car -> car.getProductionYear() > 2010));
+            store.compact();
+            store.truncate();
+            store.insert(car("BMW", 2021));
+        }
+
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals(1, store.size());
+            assertEquals("BMW", store.get(1).getBrand());
+        }
+    }
+
+    @Test
+    public void shouldGroupConcurrentWritesIntoSharedSyncs() throws Exception {
+        int threads = 8;
+        int writesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (CarStore store = CarStore.open(directory, true, 1_000_000)) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        store.insert(car("Audi", 2018));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            GroupCommitStatistics statistics = store.getStatistics();
+            assertEquals(threads * writesPerThread, statistics.getFrames());
+            assertTrue(statistics.getCommits() < statistics.getFrames(), "no write shared a sync");
+        } finally {
+            executor.shutdown();
+        }
+
+        try (CarStore store = CarStore.open(directory, true, 0)) {
+            assertEquals(threads * writesPerThread, store.size());
+        }
+    }
+
+    @Test
+    public void shouldGrowAndShrinkPrimitiveMap() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>();
+        for (long key = 1; key <= 10_000; key++) {
+            assertNull(map.put(key, "car" + key));
+        }
+        for (long key = 1; key <= 10_000; key += 2) {
+            assertEquals("car" + key, map.remove(key));
+        }
+
+        assertEquals(5_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key % 2 == 0 ? "car" + key : null, map.get(key));
+        }
+        assertEquals("car2", map.put(2, "updated"));
+        assertEquals("updated", map.get(2));
+    }
+
+    private long files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static Car car(String brand, long productionYear) {
+        return new Car(brand, "Model", Color.RED, productionYear);
+    }
+}
@@ -0,0 +1,67 @@
+package dom.dec.carapp.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TraceFilterTest {
+    private static final String SAMPLED_PARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private TraceRecorder recorder = mock(TraceRecorder.class);
+    private AtomicLong now = new AtomicLong();
+
+    @Test
+    public void shouldCapRequestsTracedOnlyBecauseCallerSampled() throws Exception {
+        TraceFilter filter = new TraceFilter(recorder, 0, 2, now::get);
+
+        assertEquals(2, traced(filter, 5));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, traced(filter, 5));
+        verify(recorder, times(4)).record(any());
+    }
+
+    @Test
+    public void shouldNotCountLocallySampledRequestsAgainstCap() throws Exception {
+        TraceFilter filter = new TraceFilter(recorder, 1.0, 0, now::get);
+
+        perform(filter, SAMPLED_PARENT);
+        perform(filter, SAMPLED_PARENT);
+
+        verify(recorder, times(2)).record(any());
+    }
+
+    @Test
+    public void shouldNotTraceWhenCallerDidNotSample() throws Exception {
+        TraceFilter filter = new TraceFilter(recorder, 1.0, 10, now::get);
+
+        MockHttpServletResponse response = perform(filter, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+
+        assertNull(response.getHeader(TraceFilter.TRACEPARENT));
+        verifyNoInteractions(recorder);
+    }
+
+    private static int traced(TraceFilter filter, int requests) throws Exception {
+        int traced = 0;
+        for (int i = 0; i < requests; i++) {
+            traced += perform(filter, SAMPLED_PARENT).getHeader(TraceFilter.TRACEPARENT) != null ? 1 : 0;
+        }
+        return traced;
+    }
+
+    private static MockHttpServletResponse perform(TraceFilter filter, String traceparent) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars/1");
+        request.addHeader(TraceFilter.TRACEPARENT, traceparent);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
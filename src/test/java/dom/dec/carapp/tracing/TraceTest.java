@@ -0,0 +1,75 @@
+package dom.dec.carapp.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceTest {
+
+    @Test
+    public void shouldNestSpansUnderInnermostOpenSpan() {
+        Trace trace = Tracing.begin(null, null, "GET /cars");
+        try (Span service = Tracing.start(Tracing.SERVICE, "CarService.getAllCars")) {
+            try (Span jdbc = Tracing.start(Tracing.JDBC, "executeQuery")) {
+                assertEquals(service.getSpanId(), jdbc.getParentSpanId());
+            }
+            assertEquals(trace.getRoot().getSpanId(), service.getParentSpanId());
+        }
+        Span serialization = Tracing.start(Tracing.SERIALIZATION, "write");
+        serialization.end();
+
+        assertSame(trace, Tracing.end());
+        assertEquals(4, trace.getSpans().size());
+        assertEquals(trace.getRoot().getSpanId(), serialization.getParentSpanId());
+        assertEquals(32, trace.getTraceId().length());
+    }
+
+    @Test
+    public void shouldSplitDurationIntoSelfTimeByStage() throws InterruptedException {
+        Trace trace = Tracing.begin(null, null, "GET /cars");
+        try (Span service = Tracing.start(Tracing.SERVICE, "CarService.getAllCars")) {
+            Thread.sleep(5);
+            try (Span jdbc = Tracing.start(Tracing.JDBC, "executeQuery")) {
+                Thread.sleep(5);
+            }
+        }
+        Tracing.end();
+
+        Map<String, Long> selfNanos = trace.getSelfNanosByStage();
+        assertEquals(trace.getDurationNanos(), selfNanos.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(selfNanos.get(Tracing.SERVICE) >= 5_000_000);
+        assertTrue(selfNanos.get(Tracing.JDBC) >= 5_000_000);
+    }
+
+    @Test
+    public void shouldNotRecordOutsideTrace() {
+        Span span = Tracing.start(Tracing.SERVICE, "CarService.getAllCars");
+
+        assertFalse(span.isRecording());
+        assertNull(Tracing.end());
+    }
+
+    @Test
+    public void shouldDropSpansOverLimit() {
+        Trace trace = Tracing.begin(null, null, "GET /cars");
+        for (int i = 0; i < Trace.MAX_SPANS + 10; i++) {
+            Tracing.start(Tracing.JDBC, "executeQuery").end();
+        }
+        Tracing.end();
+
+        assertEquals(Trace.MAX_SPANS, trace.getSpans().size());
+        assertEquals(11, trace.getDroppedSpans());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Tracing.end();
+    }
+}
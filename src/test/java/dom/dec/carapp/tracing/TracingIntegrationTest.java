@@ -0,0 +1,118 @@
+package dom.dec.carapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import dom.dec.carapp.dto.SpanDto;
+import dom.dec.carapp.dto.TraceDto;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"car.tracing.enabled=true", "car.tracing.sample-rate=1.0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectProvider<Flyway> flyway;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void shouldBreakRequestDownIntoStages() throws Exception {
+        String traceId = traceIdOf(mockMvc.perform(get("/cars/filter?from=2014&to=2019"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        TraceDto trace = findTrace(traceId);
+        assertEquals("GET /cars/filter", trace.getName());
+        assertEquals(Set.of(Tracing.HTTP, Tracing.CONTROLLER, Tracing.SERVICE, Tracing.REPOSITORY, Tracing.JDBC,
+                Tracing.SERIALIZATION), stagesOf(trace));
+        assertEquals(trace.getDurationMicros(), trace.getSelfMicrosByStage().values().stream()
+                .mapToLong(Long::longValue).sum(), trace.getSelfMicrosByStage().size());
+    }
+
+    @Test
+    public void shouldRecordValidationSpan() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(new CarDto("", "", Color.BLACK, -1));
+
+        String traceId = traceIdOf(mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andReturn());
+
+        TraceDto trace = findTrace(traceId);
+        SpanDto validation = trace.getSpans().stream()
+                .filter(span -> span.getStage().equals(Tracing.VALIDATION))
+                .findFirst()
+                .orElseThrow();
+        assertNotEquals("0", validation.getAttributes().get("errors"));
+        assertEquals("400", trace.getSpans().get(0).getAttributes().get("http.status_code"));
+    }
+
+    @Test
+    public void shouldJoinCallerTrace() throws Exception {
+        String traceparent = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+        MvcResult result = mockMvc.perform(get("/cars/1").header(TraceFilter.TRACEPARENT, traceparent))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", traceIdOf(result));
+        assertEquals("00f067aa0ba902b7", findTrace("4bf92f3577b34da6a3ce929d0e0e4736").getSpans().get(0).getParentSpanId());
+    }
+
+    @Test
+    public void shouldNotRecordWhenCallerDidNotSample() throws Exception {
+        String traceparent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-00";
+
+        MvcResult result = mockMvc.perform(get("/cars/1").header(TraceFilter.TRACEPARENT, traceparent))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(result.getResponse().getHeader(TraceFilter.TRACEPARENT));
+        mockMvc.perform(get("/admin/traces/0af7651916cd43dd8448eb211c80319c"))
+                .andExpect(status().isNotFound());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        flyway.getObject().clean();
+        flyway.getObject().migrate();
+    }
+
+    private TraceDto findTrace(String traceId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/admin/traces/" + traceId))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), TraceDto.class);
+    }
+
+    private static String traceIdOf(MvcResult result) {
+        return result.getResponse().getHeader(TraceFilter.TRACEPARENT).split("-")[1];
+    }
+
+    private static Set<String> stagesOf(TraceDto trace) {
+        return trace.getSpans().stream().map(SpanDto::getStage).collect(Collectors.toSet());
+    }
+}
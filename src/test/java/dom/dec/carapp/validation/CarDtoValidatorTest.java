@@ -0,0 +1,69 @@
+package dom.dec.carapp.validation;
+
+import dom.dec.carapp.domain.Color;
+import dom.dec.carapp.dto.CarDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarDtoValidatorTest {
+    private final CarDtoValidator validator = new CarDtoValidator();
+    private final Validator standardValidator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    public void shouldMatchStandardValidatorMessages() {
+        List<CarDto> cars = Arrays.asList(
+                new CarDto("Audi", "A4", Color.GREEN, 2020),
+                new CarDto("", "", null, -1),
+                new CarDto(null, null, null, 1899),
+                new CarDto("A", "1", Color.RED, 1900),
+                new CarDto("BMW", null, Color.BLACK, 1900),
+                new CarDto(null, "Punto", Color.RED, 2016));
+
+        for (CarDto car : cars) {
+            Set<String> expected = standardValidator.validate(car).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, Set.copyOf(validator.messages(car)));
+        }
+    }
+
+    @Test
+    public void shouldReturnSharedEmptyListWhenValid() {
+        CarDto carDto = new CarDto("Audi", "A4", Color.GREEN, 2020);
+
+        assertEquals(0, validator.check(carDto));
+        assertSame(List.of(), validator.messages(carDto));
+    }
+
+    @Test
+    public void shouldFlagEveryBrokenRule() {
+        int violations = validator.check(new CarDto("", null, null, 1000));
+
+        assertEquals(CarDtoValidator.BRAND_SIZE | CarDtoValidator.MODEL_NULL | CarDtoValidator.COLOR_NULL
+                | CarDtoValidator.PRODUCTION_YEAR_MIN, violations);
+    }
+
+    @Test
+    public void shouldRejectFieldsWithDefaultMessages() {
+        CarDto carDto = new CarDto("A", "A4", Color.GREEN, 2020);
+        Errors errors = new BeanPropertyBindingResult(carDto, "carDto");
+
+        validator.validate(carDto, errors);
+
+        assertEquals(1, errors.getErrorCount());
+        assertEquals("brand", errors.getFieldError().getField());
+        assertEquals("Brand cannot be less than 2 characters", errors.getFieldError().getDefaultMessage());
+    }
+}
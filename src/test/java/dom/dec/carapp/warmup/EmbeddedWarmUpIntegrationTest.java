@@ -0,0 +1,30 @@
+package dom.dec.carapp.warmup;
+
+import dom.dec.carapp.storage.CarStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "car.embedded.directory=target/embedded-warmup-test-${random.uuid}",
+        "car.warmup.enabled=true",
+        "car.warmup.round-size=40",
+        "car.warmup.min-rounds=2",
+        "car.warmup.target-p99-ms=10000",
+        "car.warmup.max-duration-ms=10000"})
+@ActiveProfiles("embedded")
+class EmbeddedWarmUpIntegrationTest {
+
+    @Autowired
+    private CarStore store;
+
+    @Test
+    public void shouldWarmUpWithoutWritingToEmbeddedStore() {
+        assertEquals(7, store.size());
+        assertTrue(store.find(car -> car.getModel().equals("Warm-up")).isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package dom.dec.carapp.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "car.warmup.enabled=true",
+        "car.warmup.round-size=40",
+        "car.warmup.min-rounds=2",
+        "car.warmup.target-p99-ms=10000",
+        "car.warmup.max-duration-ms=10000"})
+@ActiveProfiles("test")
+class WarmUpRunnerIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldReportReadyAfterWarmUp() {
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/admin/readiness", String.class);
+
+        assertEquals(HttpStatus.OK, readiness.getStatusCode());
+        assertEquals("\"ACCEPTING_TRAFFIC\"", readiness.getBody());
+    }
+
+    @Test
+    public void shouldRollBackWarmUpWrites() {
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cars WHERE model = 'Warm-up'", Long.class));
+    }
+}